@@ -0,0 +1,27 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import com.github.omenstudio.hydra.benchmarks.model.Book;
+import org.springframework.web.bind.annotation.RestController;
+
+
+/**
+ * Controller the aspect intercepts. Both methods return the same entity,
+ * but only one of them is marked by {@link HydraGetRequest}
+ */
+@RestController
+public class BenchmarkController {
+
+    private final Book book = Fixtures.book(42);
+
+
+    @HydraGetRequest
+    public Object getBook() {
+        return book;
+    }
+
+
+    public Object getBookPlain() {
+        return book;
+    }
+}
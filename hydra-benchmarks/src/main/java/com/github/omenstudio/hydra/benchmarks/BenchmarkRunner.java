@@ -0,0 +1,30 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * <p>
+ * Entry point of benchmarks.jar. Accepts usual JMH command line options
+ * and always adds GC profiler, so allocation rate is reported next to the time.
+ *
+ * <p>
+ * For example, {@code java -jar target/benchmarks.jar JsonLdBuilderBenchmark -p size=1000}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
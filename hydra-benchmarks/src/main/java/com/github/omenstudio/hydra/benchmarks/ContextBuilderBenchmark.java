@@ -0,0 +1,77 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.benchmarks.model.Book;
+import com.github.omenstudio.hydra.builder.ContextBuilder;
+import com.github.omenstudio.hydra.cache.StaticDocument;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Building contexts from scratch with {@code ContextBuilder.buildFor*}
+ * against serving them from cache with {@code ContextBuilder.getContextFor*}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextBuilderBenchmark {
+
+    private ContextBuilder contextBuilder;
+
+
+    @Setup
+    public void setUp() {
+        Fixtures.setUpAddresses();
+        contextBuilder = new ContextBuilder();
+    }
+
+
+    @Benchmark
+    public JsonObject buildForClass() {
+        return contextBuilder.buildForClass(Book.class);
+    }
+
+
+    @Benchmark
+    public JsonObject buildForCollection() {
+        return contextBuilder.buildForCollection(Book.class);
+    }
+
+
+    @Benchmark
+    public JsonObject buildForEntryPoint() {
+        return contextBuilder.buildForEntryPoint("books", "authors");
+    }
+
+
+    @Benchmark
+    public StaticDocument cachedForClass() {
+        return contextBuilder.getContextForClass(Book.class);
+    }
+
+
+    @Benchmark
+    public StaticDocument cachedForCollection() {
+        return contextBuilder.getContextForCollection(Book.class);
+    }
+
+
+    @Benchmark
+    public StaticDocument cachedForEntryPoint() {
+        return contextBuilder.getContextForEntryPoint("books", "authors");
+    }
+}
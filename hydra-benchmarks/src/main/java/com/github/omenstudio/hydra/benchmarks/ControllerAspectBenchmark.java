@@ -0,0 +1,136 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import com.github.omenstudio.hydra.aspect.HydraControllerAspect;
+import com.github.omenstudio.hydra.builder.AsyncResponseBuilder;
+import com.github.omenstudio.hydra.builder.ContextBuilder;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import com.github.omenstudio.hydra.handler.HydraReturnValueHandler;
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.MethodParameter;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * <p>
+ * End-to-end {@link HydraControllerAspect} interception against plain calls.
+ *
+ * <p>
+ * Difference between {@link #plainCallWithResponseBuilder} and {@link #interceptedCall}
+ * is the price of proxy and aspect themselves, {@link #returnValueHandler} is what Spring MVC
+ * integration does instead of them.
+ * Calls are made outside of a servlet request, so no conditional request headers are checked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerAspectBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+
+    private BenchmarkController proxiedController;
+
+    private BenchmarkController plainController;
+
+    private ResponseBuilder responseBuilder;
+
+    private HydraReturnValueHandler returnValueHandler;
+
+    private MethodParameter returnType;
+
+    /**
+     * Policy of {@link BenchmarkController#getBook()}, so response is built the same way the aspect builds it
+     */
+    private CachePolicy cachePolicy;
+
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @ComponentScan({"com.github.omenstudio.hydra.aspect", "com.github.omenstudio.hydra.builder"})
+    static class Config {
+
+        @Bean
+        public BenchmarkController benchmarkController() {
+            return new BenchmarkController();
+        }
+    }
+
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Fixtures.setUpAddresses();
+        HydraSettings.setAspectMode(true);
+        context = new AnnotationConfigApplicationContext(Config.class);
+        proxiedController = context.getBean(BenchmarkController.class);
+        plainController = new BenchmarkController();
+        responseBuilder = context.getBean(ResponseBuilder.class);
+        returnValueHandler = new HydraReturnValueHandler(responseBuilder,
+                context.getBean(AsyncResponseBuilder.class), context.getBean(ContextBuilder.class));
+        returnType = new MethodParameter(BenchmarkController.class.getMethod("getBook"), -1);
+        cachePolicy = CachePolicy.of(returnType.getMethodAnnotation(HydraGetRequest.class));
+    }
+
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        HydraSettings.setAspectMode(false);
+    }
+
+
+    /**
+     * Controller method call without any processing
+     */
+    @Benchmark
+    public Object plainCall() {
+        return plainController.getBookPlain();
+    }
+
+
+    /**
+     * What aspect does, called by hand
+     */
+    @Benchmark
+    public Object plainCallWithResponseBuilder() {
+        return responseBuilder.buildResponse(plainController.getBookPlain(), cachePolicy);
+    }
+
+
+    /**
+     * Call through Spring AOP proxy and {@link HydraControllerAspect}
+     */
+    @Benchmark
+    public Object interceptedCall() {
+        return proxiedController.getBook();
+    }
+
+
+    /**
+     * Plain call, which response is built by {@link HydraReturnValueHandler}, as Spring MVC does
+     */
+    @Benchmark
+    public Object returnValueHandler() {
+        return returnValueHandler.buildResponse(returnType, plainController.getBook());
+    }
+}
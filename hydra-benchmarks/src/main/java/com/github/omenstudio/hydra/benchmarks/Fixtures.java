@@ -0,0 +1,84 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.benchmarks.model.Author;
+import com.github.omenstudio.hydra.benchmarks.model.Book;
+import com.github.omenstudio.hydra.builder.GsonJsonLdWriterFactory;
+import com.github.omenstudio.hydra.builder.JsonLdBuilder;
+import com.github.omenstudio.hydra.jackson.JacksonJsonLdWriterFactory;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Data shared by benchmarks
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+
+    static void setUpAddresses() {
+        HydraUrlResolver.setServerAddress("http://localhost:8080");
+        HydraUrlResolver.setApiAddress("/api");
+        HydraUrlResolver.setVocabAddress("/api/vocab");
+        HydraUrlResolver.setContextsAddress("/api/contexts/");
+    }
+
+
+    /**
+     * @param backend "gson" or "jackson"
+     */
+    static JsonLdBuilder jsonLdBuilder(String backend) {
+        switch (backend) {
+            case "gson":
+                return new JsonLdBuilder(new GsonJsonLdWriterFactory());
+            case "jackson":
+                return new JsonLdBuilder(new JacksonJsonLdWriterFactory());
+            default:
+                throw new IllegalArgumentException("Unknown backend " + backend);
+        }
+    }
+
+
+    static Book book(long id) {
+        Author author = new Author(id % 100, "Author " + id % 100);
+        List<Author> contributors = Arrays.asList(
+                new Author(1000 + id % 7, "Contributor A"),
+                new Author(2000 + id % 11, "Contributor B"),
+                new Author(3000 + id % 13, "Contributor C"));
+        return new Book(id, author, contributors);
+    }
+
+
+    static List<Book> books(int size) {
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+
+    /**
+     * Books, which link the same few authors, like orders of a few regular customers
+     *
+     * @param authors number of distinct authors
+     */
+    static List<Book> booksOfSharedAuthors(int size, int authors) {
+        List<Author> shared = new ArrayList<>(authors);
+        for (int i = 0; i < authors; i++) {
+            shared.add(new Author(i, "Author " + i));
+        }
+
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            books.add(new Book(i, shared.get(i % authors),
+                    Arrays.asList(shared.get((i + 1) % authors), shared.get((i + 2) % authors))));
+        }
+        return books;
+    }
+}
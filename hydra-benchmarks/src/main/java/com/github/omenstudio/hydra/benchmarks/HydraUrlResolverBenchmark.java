@@ -0,0 +1,75 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.benchmarks.model.Author;
+import com.github.omenstudio.hydra.benchmarks.model.OrderLine;
+import com.github.omenstudio.hydra.benchmarks.model.ReflectiveFlatEntity;
+import com.github.omenstudio.hydra.benchmarks.model.StringIdEntity;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link HydraUrlResolver#getPathToEntity} for ids read by generated accessor,
+ * through reflection and of non-primitive type, and for path template with several variables
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HydraUrlResolverBenchmark {
+
+    private Author generated;
+
+    private ReflectiveFlatEntity reflective;
+
+    private StringIdEntity stringId;
+
+    private OrderLine templated;
+
+
+    @Setup
+    public void setUp() {
+        Fixtures.setUpAddresses();
+        generated = new Author(123456, "Author");
+        reflective = new ReflectiveFlatEntity(123456);
+        stringId = new StringIdEntity("isbn-978-3-16-148410-0");
+        templated = new OrderLine(3, "SO-2018-000042");
+    }
+
+
+    @Benchmark
+    public String longIdGeneratedAccessor() {
+        return HydraUrlResolver.getPathToEntity(generated);
+    }
+
+
+    @Benchmark
+    public String longIdReflective() {
+        return HydraUrlResolver.getPathToEntity(reflective);
+    }
+
+
+    @Benchmark
+    public String stringId() {
+        return HydraUrlResolver.getPathToEntity(stringId);
+    }
+
+
+    @Benchmark
+    public String template() {
+        return HydraUrlResolver.getPathToEntity(templated);
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.benchmarks.model.Book;
+import com.github.omenstudio.hydra.benchmarks.model.FlatEntity;
+import com.github.omenstudio.hydra.benchmarks.model.ReflectiveFlatEntity;
+import com.github.omenstudio.hydra.builder.JsonLdBuilder;
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link JsonLdBuilder#buildResponse} on single entities and collections, with each JSON backend
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonLdBuilderBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Entities {
+
+        @Param({"gson", "jackson"})
+        String backend;
+
+        JsonLdBuilder builder;
+
+        FlatEntity flat;
+
+        ReflectiveFlatEntity reflectiveFlat;
+
+        Book withLinks;
+
+        @Setup
+        public void setUp() {
+            Fixtures.setUpAddresses();
+            builder = Fixtures.jsonLdBuilder(backend);
+            flat = new FlatEntity(42);
+            reflectiveFlat = new ReflectiveFlatEntity(42);
+            withLinks = Fixtures.book(42);
+        }
+    }
+
+
+    @State(Scope.Benchmark)
+    public static class Collection {
+
+        @Param({"10", "1000", "100000"})
+        int size;
+
+        @Param({"gson", "jackson"})
+        String backend;
+
+        JsonLdBuilder builder;
+
+        List<Book> books;
+
+        @Setup
+        public void setUp() {
+            Fixtures.setUpAddresses();
+            builder = Fixtures.jsonLdBuilder(backend);
+            books = Fixtures.books(size);
+        }
+    }
+
+
+    /**
+     * 1000 books linking 20 authors, written as usual and in compact mode
+     *
+     * @see HydraSettings#isCompactCollections()
+     */
+    @State(Scope.Benchmark)
+    public static class SharedLinks {
+
+        @Param({"false", "true"})
+        boolean compact;
+
+        JsonLdBuilder builder;
+
+        List<Book> books;
+
+        @Setup
+        public void setUp() {
+            Fixtures.setUpAddresses();
+            HydraSettings.setCompactCollections(compact);
+            builder = Fixtures.jsonLdBuilder("gson");
+            books = Fixtures.booksOfSharedAuthors(1000, 20);
+        }
+
+        @TearDown
+        public void tearDown() {
+            HydraSettings.setCompactCollections(false);
+        }
+    }
+
+
+    /**
+     * 100k books written by the request thread alone and in parallel
+     *
+     * @see HydraSettings#getParallelSerializationThreshold()
+     */
+    @State(Scope.Benchmark)
+    public static class ParallelCollection {
+
+        @Param({"false", "true"})
+        boolean parallel;
+
+        JsonLdBuilder builder;
+
+        List<Book> books;
+
+        @Setup
+        public void setUp() {
+            Fixtures.setUpAddresses();
+            HydraSettings.setParallelSerializationThreshold(parallel ? 10_000 : 0);
+            builder = Fixtures.jsonLdBuilder("gson");
+            books = Fixtures.books(100_000);
+        }
+
+        @TearDown
+        public void tearDown() {
+            HydraSettings.setParallelSerializationThreshold(10_000);
+        }
+    }
+
+
+    /**
+     * Entity written by serializer generated by hydra-processor
+     */
+    @Benchmark
+    public String flatEntity(Entities state) {
+        return state.builder.buildResponse(state.flat);
+    }
+
+
+    /**
+     * The same entity written through reflection
+     */
+    @Benchmark
+    public String flatEntityReflective(Entities state) {
+        return state.builder.buildResponse(state.reflectiveFlat);
+    }
+
+
+    /**
+     * Entity with a single link and a collection of links
+     */
+    @Benchmark
+    public String entityWithLinks(Entities state) {
+        return state.builder.buildResponse(state.withLinks);
+    }
+
+
+    /**
+     * Time of the request thread, so parallel mode pays off only on multi-core hosts
+     */
+    @Benchmark
+    public String parallelCollection(ParallelCollection state) {
+        return state.builder.buildResponse(state.books);
+    }
+
+
+    @Benchmark
+    public String collection(Collection state) {
+        return state.builder.buildResponse(state.books);
+    }
+
+
+    @Benchmark
+    public String collectionWithSharedLinks(SharedLinks state) {
+        return state.builder.buildResponse(state.books);
+    }
+}
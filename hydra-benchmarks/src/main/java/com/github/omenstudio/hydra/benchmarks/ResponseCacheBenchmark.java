@@ -0,0 +1,93 @@
+package com.github.omenstudio.hydra.benchmarks;
+
+import com.github.omenstudio.hydra.annotation.request.HydraCacheable;
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import com.github.omenstudio.hydra.benchmarks.model.Book;
+import com.github.omenstudio.hydra.builder.JsonLdBody;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Response of a single entity written to the output stream:
+ * serialized on every call against served from {@link com.github.omenstudio.hydra.cache.ResponseCache}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseCacheBenchmark {
+
+    private ResponseBuilder responseBuilder;
+
+    private CachePolicy uncachedPolicy;
+
+    private CachePolicy cachedPolicy;
+
+    private Book book;
+
+    private final OutputStream sink = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+
+    @HydraCacheable(ttl = 3600)
+    @HydraGetRequest
+    public Object getBook() {
+        return book;
+    }
+
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Fixtures.setUpAddresses();
+        responseBuilder = new ResponseBuilder();
+        responseBuilder.setDirectOutput(true);
+
+        Method method = ResponseCacheBenchmark.class.getMethod("getBook");
+        uncachedPolicy = CachePolicy.of(method.getAnnotation(HydraGetRequest.class));
+        cachedPolicy = CachePolicy.of(method.getAnnotation(HydraGetRequest.class), method.getAnnotation(HydraCacheable.class));
+
+        book = Fixtures.book(42);
+    }
+
+
+    @Benchmark
+    public Object uncached() throws IOException {
+        ResponseEntity<?> response = (ResponseEntity<?>) responseBuilder.buildResponse(book, uncachedPolicy);
+        ((JsonLdBody) response.getBody()).writeTo(sink);
+        return response;
+    }
+
+
+    @Benchmark
+    public Object cached() throws IOException {
+        ResponseEntity<?> response = (ResponseEntity<?>) responseBuilder.buildResponse(book, cachedPolicy);
+        sink.write((byte[]) response.getBody());
+        return response;
+    }
+}
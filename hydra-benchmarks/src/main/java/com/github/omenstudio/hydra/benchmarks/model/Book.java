@@ -0,0 +1,47 @@
+package com.github.omenstudio.hydra.benchmarks.model;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+import com.github.omenstudio.hydra.annotation.model.HydraLink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Entity with links: single one and collection of them
+ */
+@HydraEntity("http://schema.org/Book")
+public class Book {
+
+    long id;
+
+    @HydraField(value = "http://schema.org/name", includeInCollection = true)
+    String title;
+
+    @HydraField("http://schema.org/isbn")
+    String isbn;
+
+    @HydraField("http://schema.org/numberOfPages")
+    int pages;
+
+    @HydraField("http://schema.org/price")
+    double price;
+
+    @HydraLink(value = "http://schema.org/author", includeInCollection = true)
+    Author author;
+
+    @HydraLink("http://schema.org/contributor")
+    List<Author> contributors = new ArrayList<>();
+
+
+    public Book(long id, Author author, List<Author> contributors) {
+        this.id = id;
+        this.title = "Book #" + id;
+        this.isbn = "978-3-16-" + (100000 + id % 900000) + "-0";
+        this.pages = (int) (100 + id % 400);
+        this.price = 9.99 + id % 50;
+        this.author = author;
+        this.contributors = contributors;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.omenstudio.hydra.benchmarks.model;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+
+
+/**
+ * Entity without links. Fields are package-private, so hydra-processor generates serializer for it
+ */
+@HydraEntity("http://schema.org/Thing")
+public class FlatEntity {
+
+    long id;
+
+    @HydraField("http://schema.org/name")
+    String name;
+
+    @HydraField("http://schema.org/description")
+    String description;
+
+    @HydraField("http://schema.org/position")
+    int position;
+
+    @HydraField("http://schema.org/value")
+    double value;
+
+    boolean active;
+
+
+    public FlatEntity(long id) {
+        this.id = id;
+        this.name = "Thing " + id;
+        this.description = "Plain entity without links, number " + id;
+        this.position = (int) id;
+        this.value = id / 3.0;
+        this.active = id % 2 == 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.omenstudio.hydra.benchmarks.model;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraId;
+
+
+/**
+ * Entity nested into its owner's path, with identifier of custom name
+ */
+@HydraEntity(value = "http://schema.org/OrderItem",
+        pathToEntity = "/orders/{orderNumber}/lines/{id}",
+        pathToCollection = "/orders/{orderNumber}/lines/")
+public class OrderLine {
+
+    @HydraId
+    long lineNumber;
+
+    String orderNumber;
+
+
+    public OrderLine(long lineNumber, String orderNumber) {
+        this.lineNumber = lineNumber;
+        this.orderNumber = orderNumber;
+    }
+}
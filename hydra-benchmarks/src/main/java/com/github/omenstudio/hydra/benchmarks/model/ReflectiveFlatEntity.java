@@ -0,0 +1,39 @@
+package com.github.omenstudio.hydra.benchmarks.model;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+
+
+/**
+ * Same as {@link FlatEntity}, but its fields are private and have no getters.
+ * So hydra-processor skips it and it is written through reflection
+ */
+@HydraEntity("http://schema.org/Thing")
+public class ReflectiveFlatEntity {
+
+    private long id;
+
+    @HydraField("http://schema.org/name")
+    private String name;
+
+    @HydraField("http://schema.org/description")
+    private String description;
+
+    @HydraField("http://schema.org/position")
+    private int position;
+
+    @HydraField("http://schema.org/value")
+    private double value;
+
+    private boolean active;
+
+
+    public ReflectiveFlatEntity(long id) {
+        this.id = id;
+        this.name = "Thing " + id;
+        this.description = "Plain entity without links, number " + id;
+        this.position = (int) id;
+        this.value = id / 3.0;
+        this.active = id % 2 == 0;
+    }
+}
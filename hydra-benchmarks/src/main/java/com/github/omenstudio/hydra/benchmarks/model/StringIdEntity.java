@@ -0,0 +1,18 @@
+package com.github.omenstudio.hydra.benchmarks.model;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+
+
+/**
+ * Entity with non-primitive id
+ */
+@HydraEntity("http://schema.org/Thing")
+public class StringIdEntity {
+
+    String id;
+
+
+    public StringIdEntity(String id) {
+        this.id = id;
+    }
+}
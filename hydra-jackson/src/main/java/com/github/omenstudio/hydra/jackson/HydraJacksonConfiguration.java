@@ -0,0 +1,22 @@
+package com.github.omenstudio.hydra.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * Switches the framework to Jackson backend. Uses ObjectMapper of the application, if there is one:
+ * <pre>
+ * &#64;Import(HydraJacksonConfiguration.class)
+ * </pre>
+ */
+@Configuration
+public class HydraJacksonConfiguration {
+
+    @Bean
+    public JacksonJsonLdWriterFactory jsonLdWriterFactory(ObjectProvider<ObjectMapper> objectMapper) {
+        return new JacksonJsonLdWriterFactory(objectMapper.getIfAvailable(ObjectMapper::new));
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.omenstudio.hydra.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.omenstudio.hydra.builder.JsonLdWriter;
+
+import java.io.IOException;
+
+
+/**
+ * Delegates to Jackson generator. Writer is created for a single response and isn't thread-safe
+ */
+final class JacksonJsonLdWriter implements JsonLdWriter {
+
+    private final JsonGenerator generator;
+
+    private final JacksonJsonLdWriterFactory factory;
+
+    private final SerializerProvider provider;
+
+
+    JacksonJsonLdWriter(JsonGenerator generator, JacksonJsonLdWriterFactory factory) {
+        this.generator = generator;
+        this.factory = factory;
+        this.provider = factory.createProvider();
+    }
+
+
+    @Override
+    public JsonLdWriter beginObject() throws IOException {
+        generator.writeStartObject();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter endObject() throws IOException {
+        generator.writeEndObject();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter beginArray() throws IOException {
+        generator.writeStartArray();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter endArray() throws IOException {
+        generator.writeEndArray();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter name(String name) throws IOException {
+        generator.writeFieldName(name);
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter value(String value) throws IOException {
+        generator.writeString(value);
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter value(long value) throws IOException {
+        generator.writeNumber(value);
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter nullValue() throws IOException {
+        generator.writeNull();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter jsonValue(String json) throws IOException {
+        generator.writeRawValue(json);
+        return this;
+    }
+
+
+    /**
+     * Values serialized separately can't be put into indented output, their indentation would be wrong
+     */
+    @Override
+    public boolean canWriteJsonValue() {
+        return generator.getPrettyPrinter() == null;
+    }
+
+
+    @Override
+    public void writeFields(Object entity) throws IOException {
+        factory.getFieldSerializer(entity.getClass(), provider).serialize(entity, generator, provider);
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.omenstudio.hydra.jackson;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import com.github.omenstudio.hydra.annotation.JsonExclude;
+import com.github.omenstudio.hydra.annotation.model.HydraLink;
+import com.github.omenstudio.hydra.builder.JsonLdWriter;
+import com.github.omenstudio.hydra.builder.JsonLdWriterFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * <p>
+ * Jackson backend. JSON-LD structure is written by {@link JsonGenerator}, plain entity fields
+ * are written by the given {@link ObjectMapper}, so its modules and settings, for instance
+ * date formats, apply to entities too.
+ *
+ * <p>
+ * Mapper is copied and the copy is configured to see entities the way Gson backend does:
+ * fields are written regardless of their visibility, getters are ignored, null fields are skipped,
+ * {@link HydraLink} and {@link JsonExclude} fields are left for the framework.
+ * Output is the same as of Gson backend, except for values which these libraries represent differently,
+ * e.g. dates, and for order of inherited fields, which Jackson writes first.
+ *
+ * <p>
+ * Serializers of entity fields are looked up once per entity class.
+ */
+public class JacksonJsonLdWriterFactory implements JsonLdWriterFactory {
+
+    private final ObjectMapper mapper;
+
+    private final Map<Class<?>, JsonSerializer<Object>> fieldSerializers = new ConcurrentHashMap<>();
+
+
+    public JacksonJsonLdWriterFactory() {
+        this(new ObjectMapper());
+    }
+
+
+    /**
+     * @param objectMapper mapper of the application, isn't modified
+     */
+    public JacksonJsonLdWriterFactory(ObjectMapper objectMapper) {
+        mapper = objectMapper.copy();
+        mapper.setAnnotationIntrospector(AnnotationIntrospector.pair(
+                new HydraAnnotationIntrospector(), mapper.getSerializationConfig().getAnnotationIntrospector()));
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL));
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        mapper.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+
+    @Override
+    public JsonLdWriter create(Writer writer) throws IOException {
+        return new JacksonJsonLdWriter(mapper.getFactory().createGenerator(writer), this);
+    }
+
+
+    /**
+     * Creates provider for a single response, providers keep per-call state
+     */
+    SerializerProvider createProvider() {
+        return mapper.getSerializerProviderInstance();
+    }
+
+
+    /**
+     * Returns serializer, which writes fields of the entity without enclosing braces
+     */
+    JsonSerializer<Object> getFieldSerializer(Class<?> entityClass, SerializerProvider provider) throws JsonMappingException {
+        JsonSerializer<Object> serializer = fieldSerializers.get(entityClass);
+        if (serializer == null) {
+            serializer = provider.findValueSerializer(entityClass).unwrappingSerializer(NameTransformer.NOP);
+            fieldSerializers.put(entityClass, serializer);
+        }
+        return serializer;
+    }
+
+
+    /**
+     * Hides fields, which are written by the framework or must not be written at all
+     */
+    private static final class HydraAnnotationIntrospector extends NopAnnotationIntrospector {
+
+        @Override
+        public boolean hasIgnoreMarker(AnnotatedMember member) {
+            return member.hasAnnotation(HydraLink.class) || member.hasAnnotation(JsonExclude.class);
+        }
+    }
+}
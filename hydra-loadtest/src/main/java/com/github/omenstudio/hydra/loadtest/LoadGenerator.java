@@ -0,0 +1,169 @@
+package com.github.omenstudio.hydra.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+
+/**
+ * <p>
+ * Closed-loop HTTP load: each of concurrent clients sends the next request as soon as it has read the previous response.
+ *
+ * <p>
+ * Clients use keep-alive connections of {@link HttpURLConnection} and read bodies fully,
+ * so the whole response, including message conversion and body transfer, is measured.
+ * Responses with status other than 200 and I/O failures are counted as errors and aren't measured.
+ */
+public class LoadGenerator {
+
+    private static final String ACCEPT = "application/ld+json, application/json";
+
+    private final String address;
+
+
+    /**
+     * @param address server address, like http://localhost:8080
+     */
+    public LoadGenerator(String address) {
+        this.address = address;
+    }
+
+
+    /**
+     * @param scenario      endpoint to load
+     * @param concurrency   number of clients
+     * @param durationNanos how long clients send requests
+     */
+    public LoadResult run(Scenario scenario, int concurrency, long durationNanos) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        List<Client> clients = new ArrayList<>(concurrency);
+        List<Thread> threads = new ArrayList<>(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            Client client = new Client(scenario, i, started);
+            Thread thread = new Thread(client, "load-" + scenario.name + "-" + i);
+            clients.add(client);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long startTime = System.nanoTime();
+        long deadline = startTime + durationNanos;
+        clients.forEach(client -> client.deadline = deadline);
+        started.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        int requests = 0;
+        long errors = 0;
+        long bytes = 0;
+        for (Client client : clients) {
+            requests += client.count;
+            errors += client.errors;
+            bytes += client.bytes;
+        }
+
+        long[] latencies = new long[requests];
+        int position = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, position, client.count);
+            position += client.count;
+        }
+
+        return new LoadResult(scenario.name, concurrency, latencies, errors, bytes, elapsed);
+    }
+
+
+    private final class Client implements Runnable {
+
+        private final Scenario scenario;
+
+        private final int number;
+
+        private final CountDownLatch started;
+
+        private final byte[] buffer = new byte[8192];
+
+        private volatile long deadline;
+
+        private long[] latencies = new long[64 * 1024];
+
+        private int count;
+
+        private long errors;
+
+        private long bytes;
+
+
+        Client(Scenario scenario, int number, CountDownLatch started) {
+            this.scenario = scenario;
+            this.number = number;
+            this.started = started;
+        }
+
+
+        @Override
+        public void run() {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            // Clients start from different ids, so they don't request the same entities at the same time
+            long requestNumber = number * 7919L;
+            while (System.nanoTime() < deadline) {
+                long startTime = System.nanoTime();
+                long received = request(scenario.getPath(requestNumber++));
+                long latency = System.nanoTime() - startTime;
+
+                if (received < 0) {
+                    errors++;
+                    continue;
+                }
+
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latency;
+                bytes += received;
+            }
+        }
+
+
+        /**
+         * @return body size, -1 if request has failed
+         */
+        private long request(String path) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(address + path).openConnection();
+                connection.setRequestProperty("Accept", ACCEPT);
+
+                int status = connection.getResponseCode();
+                InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+
+                // Body must be read to the end, so the connection is reused
+                long received = 0;
+                if (body != null) {
+                    try (InputStream in = body) {
+                        for (int read; (read = in.read(buffer)) >= 0; ) {
+                            received += read;
+                        }
+                    }
+                }
+
+                return status == 200 ? received : -1;
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+    }
+}
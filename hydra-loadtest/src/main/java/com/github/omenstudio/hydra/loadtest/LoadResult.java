@@ -0,0 +1,80 @@
+package com.github.omenstudio.hydra.loadtest;
+
+import java.util.Arrays;
+
+
+/**
+ * Measurements of a single endpoint at a single concurrency level. Latencies are in microseconds
+ */
+public class LoadResult {
+
+    final String scenario;
+
+    final int concurrency;
+
+    final long requests;
+
+    final long errors;
+
+    final double seconds;
+
+    final double throughput;
+
+    final long p50;
+
+    final long p99;
+
+    final long p999;
+
+    final long max;
+
+    /**
+     * Average body size in bytes
+     */
+    final long bodyBytes;
+
+
+    /**
+     * @param latencies latencies of successful requests in nanoseconds, sorted in place
+     */
+    LoadResult(String scenario, int concurrency, long[] latencies, long errors, long bytes, long durationNanos) {
+        Arrays.sort(latencies);
+
+        this.scenario = scenario;
+        this.concurrency = concurrency;
+        this.requests = latencies.length;
+        this.errors = errors;
+        this.seconds = durationNanos / 1e9;
+        this.throughput = latencies.length / seconds;
+        this.p50 = percentileMicros(latencies, 50);
+        this.p99 = percentileMicros(latencies, 99);
+        this.p999 = percentileMicros(latencies, 99.9);
+        this.max = latencies.length > 0 ? latencies[latencies.length - 1] / 1000 : 0;
+        this.bodyBytes = latencies.length > 0 ? bytes / latencies.length : 0;
+    }
+
+
+    /**
+     * Nearest-rank percentile
+     */
+    private static long percentileMicros(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0)
+            return 0;
+
+        int rank = (int) Math.ceil(sortedLatencies.length * percentile / 100);
+        return sortedLatencies[Math.max(0, rank - 1)] / 1000;
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("%-18s %5d %12.0f %9d %9d %9d %9d %8d %7d",
+                scenario, concurrency, throughput, p50, p99, p999, max, bodyBytes, errors);
+    }
+
+
+    static String header() {
+        return String.format("%-18s %5s %12s %9s %9s %9s %9s %8s %7s",
+                "scenario", "conc", "req/s", "p50,us", "p99,us", "p999,us", "max,us", "bytes", "errors");
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.omenstudio.hydra.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * <p>
+ * Entry point of loadtest.jar. Starts the sample application and loads its Hydra and plain endpoints
+ * in turn at each concurrency level. All endpoints are warmed up first, and every run is preceded by a warm-up run,
+ * which isn't measured.
+ *
+ * <p>
+ * Options, all optional:
+ * <ul>
+ * <li>{@code --concurrency=1,4,16,64} numbers of concurrent clients</li>
+ * <li>{@code --warmup=5} seconds of warm-up before each run and of initial warm-up of each endpoint</li>
+ * <li>{@code --duration=10} seconds of each measured run</li>
+ * <li>{@code --collection-size=20} members of collection responses</li>
+ * <li>{@code --output=target/loadtest-results.json} file of results</li>
+ * </ul>
+ *
+ * <p>
+ * Results file is JSON: environment of the run, measurements of each scenario and concurrency level,
+ * and overhead of the framework, which is the ratio of Hydra to plain throughput and p99 latency of the same endpoint.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int[] concurrencyLevels = Arrays.stream(options.getOrDefault("concurrency", "1,4,16,64").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        long warmUpNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "5")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "10")));
+        int collectionSize = Integer.parseInt(options.getOrDefault("collection-size", "20"));
+        Path output = Paths.get(options.getOrDefault("output", "target/loadtest-results.json"));
+
+        List<Scenario> scenarios = Arrays.asList(
+                new Scenario("hydra-entity", "entity", "/hydra/books/{id}"),
+                new Scenario("plain-entity", "entity", "/plain/books/{id}"),
+                new Scenario("hydra-collection", "collection", "/hydra/books/?size=" + collectionSize),
+                new Scenario("plain-collection", "collection", "/plain/books/?size=" + collectionSize));
+
+        // Each client keeps its own connection
+        System.setProperty("http.maxConnections", String.valueOf(Arrays.stream(concurrencyLevels).max().orElse(1)));
+
+        SampleServer server = new SampleServer();
+        server.start();
+
+        List<LoadResult> results = new ArrayList<>();
+        try {
+            LoadGenerator generator = new LoadGenerator(server.getAddress());
+
+            // Code of the whole stack is compiled before the first run, so it doesn't get worse numbers than others
+            for (Scenario scenario : scenarios) {
+                generator.run(scenario, concurrencyLevels[0], warmUpNanos);
+            }
+
+            System.out.println(LoadResult.header());
+            for (int concurrency : concurrencyLevels) {
+                for (Scenario scenario : scenarios) {
+                    generator.run(scenario, concurrency, warmUpNanos);
+
+                    LoadResult result = generator.run(scenario, concurrency, durationNanos);
+                    results.add(result);
+                    System.out.println(result);
+                }
+            }
+        } finally {
+            server.stop();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("hydraVersion", getHydraVersion());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        report.put("timestamp", Instant.now().toString());
+        report.put("warmupSeconds", TimeUnit.NANOSECONDS.toSeconds(warmUpNanos));
+        report.put("durationSeconds", TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+        report.put("collectionSize", collectionSize);
+        report.put("results", results);
+        report.put("overhead", buildOverhead(scenarios, results));
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            gson.toJson(report, writer);
+        }
+        System.out.println("Results are written to " + output.toAbsolutePath());
+    }
+
+
+    /**
+     * Compares Hydra and plain scenarios of the same endpoint at the same concurrency level
+     */
+    private static List<Map<String, Object>> buildOverhead(List<Scenario> scenarios, List<LoadResult> results) {
+        Map<String, Scenario> scenariosByName = new HashMap<>();
+        scenarios.forEach(scenario -> scenariosByName.put(scenario.name, scenario));
+
+        List<Map<String, Object>> overhead = new ArrayList<>();
+        for (LoadResult hydra : results) {
+            Scenario hydraScenario = scenariosByName.get(hydra.scenario);
+            if (!hydraScenario.isHydra())
+                continue;
+
+            for (LoadResult plain : results) {
+                Scenario plainScenario = scenariosByName.get(plain.scenario);
+                if (plainScenario.isHydra() || !plainScenario.endpoint.equals(hydraScenario.endpoint) ||
+                        plain.concurrency != hydra.concurrency)
+                    continue;
+
+                Map<String, Object> comparison = new LinkedHashMap<>();
+                comparison.put("endpoint", hydraScenario.endpoint);
+                comparison.put("concurrency", hydra.concurrency);
+                comparison.put("throughputRatio", plain.throughput > 0 ? hydra.throughput / plain.throughput : 0);
+                comparison.put("p99Ratio", plain.p99 > 0 ? (double) hydra.p99 / plain.p99 : 0);
+                overhead.add(comparison);
+            }
+        }
+        return overhead;
+    }
+
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected --name=value");
+
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+
+    private static String getHydraVersion() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = LoadTestRunner.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return properties.getProperty("hydra.version", "unknown");
+    }
+}
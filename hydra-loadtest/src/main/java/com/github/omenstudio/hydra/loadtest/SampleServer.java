@@ -0,0 +1,70 @@
+package com.github.omenstudio.hydra.loadtest;
+
+import com.github.omenstudio.hydra.loadtest.app.SampleConfig;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+
+/**
+ * Sample application in embedded Tomcat, listening on a free local port
+ */
+public class SampleServer {
+
+    private final Tomcat tomcat = new Tomcat();
+
+    private final AnnotationConfigWebApplicationContext applicationContext = new AnnotationConfigWebApplicationContext();
+
+    private int port;
+
+
+    public void start() throws IOException, LifecycleException {
+        tomcat.setBaseDir(Files.createTempDirectory("hydra-loadtest").toString());
+
+        Connector connector = tomcat.getConnector();
+        connector.setPort(0);
+        // Load generator keeps connections open for the whole run
+        connector.setProperty("maxKeepAliveRequests", "-1");
+
+        applicationContext.register(SampleConfig.class);
+
+        Context context = tomcat.addContext("", null);
+        Wrapper dispatcher = Tomcat.addServlet(context, "dispatcher", new DispatcherServlet(applicationContext));
+        dispatcher.setLoadOnStartup(1);
+        dispatcher.setAsyncSupported(true);
+        context.addServletMappingDecoded("/", "dispatcher");
+
+        tomcat.start();
+        port = connector.getLocalPort();
+
+        HydraUrlResolver.setServerAddress(getAddress());
+        HydraUrlResolver.setApiAddress("/hydra");
+        HydraUrlResolver.setVocabAddress("/hydra/vocab");
+        HydraUrlResolver.setContextsAddress("/hydra/contexts");
+    }
+
+
+    public void stop() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+
+    public ApplicationContext getApplicationContext() {
+        return applicationContext;
+    }
+
+
+    public String getAddress() {
+        return "http://localhost:" + port;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.omenstudio.hydra.loadtest;
+
+import com.github.omenstudio.hydra.loadtest.app.BookRepository;
+
+
+/**
+ * Endpoint under load. Path may contain {id}, which is replaced by ids of all books in turn,
+ * so requests don't hit the same entity
+ */
+public class Scenario {
+
+    final String name;
+
+    /**
+     * Name of the endpoint both Hydra and plain scenarios share, e.g. "entity"
+     */
+    final String endpoint;
+
+    private final String path;
+
+
+    Scenario(String name, String endpoint, String path) {
+        this.name = name;
+        this.endpoint = endpoint;
+        this.path = path;
+    }
+
+
+    String getPath(long requestNumber) {
+        return path.replace("{id}", String.valueOf(requestNumber % BookRepository.BOOKS));
+    }
+
+
+    boolean isHydra() {
+        return name.startsWith("hydra");
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.omenstudio.hydra.loadtest.app;
+
+import com.github.omenstudio.hydra.loadtest.model.Author;
+import com.github.omenstudio.hydra.loadtest.model.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * In-memory books shared by Hydra and plain controllers, so both serialize the same objects
+ */
+@Component
+public class BookRepository {
+
+    public static final int BOOKS = 1000;
+
+    private static final int AUTHORS = 50;
+
+    private final List<Book> books;
+
+
+    public BookRepository() {
+        List<Author> authors = new ArrayList<>(AUTHORS);
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(new Author(i, "Author " + i));
+        }
+
+        List<Book> created = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            created.add(new Book(i, authors.get(i % AUTHORS)));
+        }
+        this.books = Collections.unmodifiableList(created);
+    }
+
+
+    /**
+     * @return book by id, ids out of range wrap around
+     */
+    public Book findOne(long id) {
+        return books.get((int) Math.floorMod(id, (long) BOOKS));
+    }
+
+
+    /**
+     * @return first books, at most {@link #BOOKS}
+     */
+    public List<Book> findFirst(int size) {
+        return books.subList(0, Math.max(0, Math.min(size, BOOKS)));
+    }
+}
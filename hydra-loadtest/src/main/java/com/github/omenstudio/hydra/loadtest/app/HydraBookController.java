@@ -0,0 +1,32 @@
+package com.github.omenstudio.hydra.loadtest.app;
+
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+
+/**
+ * Endpoints, which responses are built by the framework
+ *
+ * @see PlainBookController
+ */
+@RestController
+public class HydraBookController {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+
+    @HydraGetRequest("/hydra/books/{id}")
+    public Object getBook(@PathVariable long id) {
+        return bookRepository.findOne(id);
+    }
+
+
+    @HydraGetRequest("/hydra/books/")
+    public Object getBooks(@RequestParam(defaultValue = "20") int size) {
+        return bookRepository.findFirst(size);
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.omenstudio.hydra.loadtest.app;
+
+import com.github.omenstudio.hydra.loadtest.model.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+
+/**
+ * Baseline: the same books written as plain JSON by Spring MVC message converter (Gson)
+ *
+ * @see HydraBookController
+ */
+@RestController
+public class PlainBookController {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+
+    @GetMapping("/plain/books/{id}")
+    public Book getBook(@PathVariable long id) {
+        return bookRepository.findOne(id);
+    }
+
+
+    @GetMapping("/plain/books/")
+    public List<Book> getBooks(@RequestParam(defaultValue = "20") int size) {
+        return bookRepository.findFirst(size);
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.omenstudio.hydra.loadtest.app;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+
+/**
+ * Sample application configured as README suggests
+ */
+@Configuration
+@EnableWebMvc
+@EnableAspectJAutoProxy
+@ComponentScan({"com.github.omenstudio.hydra.*", "com.github.omenstudio.hydra.loadtest.app"})
+public class SampleConfig {
+}
@@ -0,0 +1,24 @@
+package com.github.omenstudio.hydra.loadtest.model;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+
+
+@HydraEntity(value = "http://schema.org/Person", pathToEntity = "/authors/", pathToCollection = "/authors/")
+public class Author {
+
+    long id;
+
+    @HydraField(value = "http://schema.org/name", includeInCollection = true)
+    String name;
+
+    @HydraField("http://schema.org/email")
+    String email;
+
+
+    public Author(long id, String name) {
+        this.id = id;
+        this.name = name;
+        this.email = name.toLowerCase().replace(' ', '.') + "@example.com";
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.omenstudio.hydra.loadtest;
+
+import com.github.omenstudio.hydra.annotation.request.HydraCacheable;
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import com.github.omenstudio.hydra.annotation.request.HydraPutRequest;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.ResponseCache;
+import com.github.omenstudio.hydra.loadtest.app.BookRepository;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Asynchronous results are completed after the servlet thread has left the request,
+ * so their responses are checked in a real servlet container rather than with mocks
+ */
+public class AsyncResponseTest {
+
+    private static SampleServer server;
+
+    private static ResponseCache responseCache;
+
+
+    /**
+     * Found by component scan of the sample application
+     */
+    @RestController
+    public static class AsyncBookController {
+
+        @Autowired
+        private BookRepository bookRepository;
+
+
+        @HydraCacheable(ttl = 60)
+        @HydraGetRequest("/hydra/async/books/{id}")
+        public Object getBook(@PathVariable long id) {
+            return CompletableFuture.supplyAsync(() -> bookRepository.findOne(id));
+        }
+
+
+        @HydraCacheable(ttl = 60)
+        @HydraGetRequest("/hydra/callable/books/{id}")
+        public Object getBookLater(@PathVariable long id) {
+            return (Callable<Object>) () -> bookRepository.findOne(id);
+        }
+
+
+        @HydraPutRequest("/hydra/async/books/{id}")
+        public Object putBook(@PathVariable long id) {
+            return CompletableFuture.supplyAsync(() -> bookRepository.findOne(id));
+        }
+    }
+
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new SampleServer();
+        server.start();
+        responseCache = server.getApplicationContext().getBean(ResponseBuilder.class).getResponseCache();
+    }
+
+
+    @AfterClass
+    public static void stopServer() throws Exception {
+        server.stop();
+    }
+
+
+    @Before
+    public void clearCache() {
+        responseCache.clear();
+    }
+
+
+    @Test
+    public void cacheableFutureIsCachedAndInvalidatedByAsyncWrite() throws IOException {
+        String body = assertOk("GET", "/hydra/async/books/7");
+        assertTrue(body, body.contains("\"@id\":\"/hydra/books/7\""));
+        assertEquals(1, responseCache.size());
+
+        long hits = responseCache.getHits();
+        assertEquals(body, assertOk("GET", "/hydra/async/books/7"));
+        assertEquals(hits + 1, responseCache.getHits());
+
+        long invalidations = responseCache.getInvalidations();
+        assertOk("PUT", "/hydra/async/books/7");
+        assertEquals(0, responseCache.size());
+        assertTrue(responseCache.getInvalidations() > invalidations);
+
+        assertEquals(body, assertOk("GET", "/hydra/async/books/7"));
+    }
+
+
+    @Test
+    public void cacheableCallableIsCached() throws IOException {
+        String body = assertOk("GET", "/hydra/callable/books/8");
+        assertTrue(body, body.contains("\"@id\":\"/hydra/books/8\""));
+        assertEquals(1, responseCache.size());
+        assertEquals(body, assertOk("GET", "/hydra/callable/books/8"));
+    }
+
+
+    private static String assertOk(String method, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.getAddress() + path).openConnection();
+        connection.setRequestMethod(method);
+        try {
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String body = read(in);
+            assertEquals(method + " " + path + ": " + body, 200, status);
+            return body;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+
+    private static String read(InputStream in) throws IOException {
+        if (in == null)
+            return "";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, read);
+        }
+        in.close();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
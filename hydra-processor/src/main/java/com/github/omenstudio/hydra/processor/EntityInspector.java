@@ -0,0 +1,365 @@
+package com.github.omenstudio.hydra.processor;
+
+import com.github.omenstudio.hydra.processor.SerializerModel.Accessor;
+import com.github.omenstudio.hydra.processor.SerializerModel.FieldAccess;
+import com.github.omenstudio.hydra.processor.SerializerModel.PlainField;
+import com.github.omenstudio.hydra.processor.SerializerModel.ValueKind;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * <p>
+ * Builds {@link SerializerModel} of the entity.
+ *
+ * <p>
+ * Plain fields are chosen exactly as Gson's reflective adapter with
+ * {@code AnnotationJsonExclusionStrategy} chooses them: fields of the class and then of its superclasses,
+ * except static, transient, {@code JsonExclude} and {@code HydraLink} ones.
+ *
+ * <p>
+ * Field is read directly if it isn't private, otherwise through its getter:
+ * declared one or generated by Lombok's {@code Getter}, {@code Data} or {@code Value}.
+ */
+class EntityInspector {
+
+    private static final String HYDRA_FIELD = "com.github.omenstudio.hydra.annotation.model.HydraField";
+    private static final String HYDRA_LINK = "com.github.omenstudio.hydra.annotation.model.HydraLink";
+    private static final String HYDRA_VERSION = "com.github.omenstudio.hydra.annotation.model.HydraVersion";
+    private static final String HYDRA_ID = "com.github.omenstudio.hydra.annotation.model.HydraId";
+    private static final String JSON_EXCLUDE = "com.github.omenstudio.hydra.annotation.JsonExclude";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    private static final String LOMBOK_GETTER = "lombok.Getter";
+    private static final String LOMBOK_DATA = "lombok.Data";
+    private static final String LOMBOK_VALUE = "lombok.Value";
+    private static final String LOMBOK_ACCESSORS = "lombok.experimental.Accessors";
+
+    private final Elements elements;
+
+    private final Types types;
+
+
+    EntityInspector(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+
+    SerializerModel inspect(TypeElement entity) throws UnsupportedEntityException {
+        checkEntityClass(entity);
+
+        String packageName = getPackageName(entity);
+        String binaryName = elements.getBinaryName(entity).toString();
+        String serializerName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                .replace('$', '_') + SerializerModel.SERIALIZER_SUFFIX;
+
+        return new SerializerModel(packageName, entity.getQualifiedName().toString(), serializerName,
+                findPlainFields(entity), findAccessors(entity));
+    }
+
+
+    private void checkEntityClass(TypeElement entity) throws UnsupportedEntityException {
+        for (Element element = entity; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement type = (TypeElement) element;
+
+            if (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER)
+                throw new UnsupportedEntityException("local and anonymous classes aren't supported");
+            if (type.getModifiers().contains(Modifier.PRIVATE))
+                throw new UnsupportedEntityException("class " + type.getQualifiedName() + " is private");
+            if (!type.getTypeParameters().isEmpty())
+                throw new UnsupportedEntityException("generic classes aren't supported");
+        }
+
+        for (TypeElement type = getSuperclass(entity); type != null; type = getSuperclass(type)) {
+            if (!type.getTypeParameters().isEmpty())
+                throw new UnsupportedEntityException("generic superclasses aren't supported");
+        }
+    }
+
+
+    /**
+     * Fields Gson writes, in the same order: own fields first, then fields of superclasses
+     */
+    private List<PlainField> findPlainFields(TypeElement entity) throws UnsupportedEntityException {
+        List<PlainField> result = new ArrayList<>();
+        Set<String> jsonNames = new HashSet<>();
+
+        for (TypeElement type = entity; type != null; type = getSuperclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC) ||
+                        field.getModifiers().contains(Modifier.TRANSIENT) ||
+                        hasAnnotation(field, JSON_EXCLUDE) ||
+                        hasAnnotation(field, HYDRA_LINK)) {
+                    continue;
+                }
+
+                if (hasAnnotation(field, JSON_ADAPTER))
+                    throw new UnsupportedEntityException("field " + field + " has custom Gson adapter");
+
+                String jsonName = getJsonName(field);
+                if (!jsonNames.add(jsonName))
+                    throw new UnsupportedEntityException("multiple fields are named " + jsonName);
+
+                FieldAccess access = findAccess(entity, type, field);
+                if (access == null)
+                    throw new UnsupportedEntityException("field " + field + " is private and has no getter");
+
+                result.add(new PlainField(jsonName, field.getSimpleName().toString(),
+                        type.getQualifiedName().toString(), getValueKind(field.asType()), access));
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Accessors for fields, which framework reads itself. Fields without accessor are read through reflection
+     */
+    private Map<String, Accessor> findAccessors(TypeElement entity) {
+        Map<String, Accessor> result = new LinkedHashMap<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            String name = field.getSimpleName().toString();
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (!name.equals("id") && !hasAnnotation(field, HYDRA_ID) && !hasAnnotation(field, HYDRA_FIELD) &&
+                    !hasAnnotation(field, HYDRA_LINK) && !hasAnnotation(field, HYDRA_VERSION)) {
+                continue;
+            }
+
+            FieldAccess access = findAccess(entity, entity, field);
+            if (access != null) {
+                result.put(name, new Accessor(getAccessorType(field.asType()), access));
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * @param entity         class of the receiver
+     * @param declaringClass class, which declares the field
+     * @param field          field to read
+     * @return way to read the field from generated class, null if it isn't accessible
+     */
+    private FieldAccess findAccess(TypeElement entity, TypeElement declaringClass, VariableElement field) {
+        String packageName = getPackageName(entity);
+        String castTo = declaringClass.equals(entity) ? null : declaringClass.getQualifiedName().toString();
+
+        if (castTo != null && !isAccessible(declaringClass, packageName))
+            return null;
+
+        // Direct access is the cheapest and exactly what Gson reads
+        if (isAccessible(field, packageName)) {
+            return new FieldAccess(castTo, "." + field.getSimpleName());
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(entity))) {
+            if (isGetterOf(method, field) && isAccessible(method, packageName)) {
+                return new FieldAccess(null, "." + method.getSimpleName() + "()");
+            }
+        }
+
+        String lombokGetter = getLombokGetterName(declaringClass, field, packageName);
+        return lombokGetter != null ? new FieldAccess(null, "." + lombokGetter + "()") : null;
+    }
+
+
+    private boolean isGetterOf(ExecutableElement method, VariableElement field) {
+        if (method.getModifiers().contains(Modifier.STATIC) || !method.getParameters().isEmpty() ||
+                !types.isSameType(method.getReturnType(), field.asType())) {
+            return false;
+        }
+
+        String name = method.getSimpleName().toString();
+        String capitalized = capitalize(field.getSimpleName().toString());
+
+        return name.equals("get" + capitalized) ||
+                field.asType().getKind() == TypeKind.BOOLEAN && name.equals("is" + capitalized);
+    }
+
+
+    /**
+     * Getter isn't visible yet, if Lombok runs after this processor.
+     * So its name is predicted by Lombok's rules.
+     *
+     * @return name of getter Lombok generates for the field, null if it doesn't generate accessible one
+     */
+    private String getLombokGetterName(TypeElement declaringClass, VariableElement field, String packageName) {
+        if (findAnnotation(field, LOMBOK_ACCESSORS) != null || findAnnotation(declaringClass, LOMBOK_ACCESSORS) != null)
+            return null;
+
+        String accessLevel;
+        AnnotationMirror getter = findAnnotation(field, LOMBOK_GETTER);
+        if (getter == null)
+            getter = findAnnotation(declaringClass, LOMBOK_GETTER);
+
+        if (getter != null) {
+            AnnotationValue value = getAnnotationValue(getter, "value");
+            accessLevel = value != null ? value.getValue().toString() : "PUBLIC";
+        } else if (findAnnotation(declaringClass, LOMBOK_DATA) != null ||
+                findAnnotation(declaringClass, LOMBOK_VALUE) != null) {
+            accessLevel = "PUBLIC";
+        } else {
+            return null;
+        }
+
+        boolean samePackage = getPackageName(declaringClass).equals(packageName);
+        if (!accessLevel.equals("PUBLIC") && !(samePackage && (accessLevel.equals("PROTECTED") || accessLevel.equals("PACKAGE"))))
+            return null;
+
+        String name = field.getSimpleName().toString();
+        if (field.asType().getKind() == TypeKind.BOOLEAN) {
+            boolean prefixed = name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+            return prefixed ? name : "is" + capitalize(name);
+        }
+
+        return "get" + capitalize(name);
+    }
+
+
+    /**
+     * @return accessor interface, which reads value of the given type without boxing
+     */
+    private static String getAccessorType(TypeMirror type) {
+        switch (type.getKind()) {
+            case LONG:
+                return "LongFieldAccessor";
+            case INT:
+                return "IntFieldAccessor";
+            default:
+                return "FieldAccessor";
+        }
+    }
+
+
+    private ValueKind getValueKind(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return ValueKind.DIRECT;
+            case CHAR:
+                return ValueKind.CHAR;
+            case DOUBLE:
+                return ValueKind.DOUBLE;
+            case FLOAT:
+                return ValueKind.FLOAT;
+            case DECLARED:
+                break;
+            default:
+                return ValueKind.OBJECT;
+        }
+
+        String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String":
+            case "java.lang.Boolean":
+            case "java.lang.Byte":
+            case "java.lang.Short":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+                return ValueKind.DIRECT;
+            case "java.lang.Double":
+            case "java.lang.Float":
+                return ValueKind.BOXED_FLOATING_POINT;
+            default:
+                return ValueKind.OBJECT;
+        }
+    }
+
+
+    private String getJsonName(VariableElement field) {
+        AnnotationMirror serializedName = findAnnotation(field, SERIALIZED_NAME);
+        if (serializedName == null)
+            return field.getSimpleName().toString();
+
+        return getAnnotationValue(serializedName, "value").getValue().toString();
+    }
+
+
+    private boolean isAccessible(Element element, String packageName) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC))
+            return true;
+
+        return !modifiers.contains(Modifier.PRIVATE) && getPackageName(element).equals(packageName);
+    }
+
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED)
+            return null;
+
+        TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+        return superElement.getQualifiedName().contentEquals("java.lang.Object") ? null : superElement;
+    }
+
+
+    private String getPackageName(Element element) {
+        PackageElement packageElement = elements.getPackageOf(element);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return findAnnotation(element, annotationName) != null;
+    }
+
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+
+    private static AnnotationValue getAnnotationValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.omenstudio.hydra.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+
+/**
+ * <p>
+ * Generates {@code HydraEntitySerializer} for each class marked by {@code HydraEntity}.
+ *
+ * <p>
+ * Generated serializer reads fields by direct field access or getter calls, so the framework
+ * needs no reflection to write the entity. Entities, which can't be served this way
+ * (generic ones, private fields without getters, fields with custom Gson adapters),
+ * are skipped with a note and keep being written through reflection.
+ *
+ * @see EntityInspector
+ * @see SerializerSourceWriter
+ */
+@SupportedAnnotationTypes(HydraSerializerProcessor.HYDRA_ENTITY)
+public class HydraSerializerProcessor extends AbstractProcessor {
+
+    static final String HYDRA_ENTITY = "com.github.omenstudio.hydra.annotation.model.HydraEntity";
+
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement hydraEntity = processingEnv.getElementUtils().getTypeElement(HYDRA_ENTITY);
+        if (hydraEntity == null) {
+            return false;
+        }
+
+        EntityInspector inspector = new EntityInspector(processingEnv);
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(hydraEntity)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+
+            TypeElement entity = (TypeElement) element;
+            try {
+                writeSerializer(inspector.inspect(entity), entity);
+            } catch (UnsupportedEntityException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Hydra serializer isn't generated, reflection will be used: " + e.getMessage(), entity);
+            }
+        }
+
+        // Other processors may be interested in HydraEntity too
+        return false;
+    }
+
+
+    private void writeSerializer(SerializerModel model, TypeElement entity) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(model.getQualifiedSerializerName(), entity);
+            try (Writer writer = file.openWriter()) {
+                new SerializerSourceWriter(model, processingEnv.getElementUtils()).write(writer);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Can't write Hydra serializer: " + e.toString(), entity);
+        }
+    }
+}
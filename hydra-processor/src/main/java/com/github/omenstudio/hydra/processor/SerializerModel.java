@@ -0,0 +1,208 @@
+package com.github.omenstudio.hydra.processor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Everything needed to write serializer source of a single entity
+ */
+final class SerializerModel {
+
+    static final String SERIALIZER_SUFFIX = "_HydraSerializer";
+
+    private final String packageName;
+
+    /**
+     * Entity name as it is written in source, qualified
+     */
+    private final String entityName;
+
+    private final String serializerName;
+
+    /**
+     * Fields written by Gson's reflective adapter, in its order
+     */
+    private final List<PlainField> plainFields;
+
+    /**
+     * Field name -> accessor, for fields framework reads itself: id, version, links
+     */
+    private final Map<String, Accessor> accessors;
+
+
+    SerializerModel(String packageName, String entityName, String serializerName,
+                    List<PlainField> plainFields, Map<String, Accessor> accessors) {
+        this.packageName = packageName;
+        this.entityName = entityName;
+        this.serializerName = serializerName;
+        this.plainFields = Collections.unmodifiableList(plainFields);
+        this.accessors = Collections.unmodifiableMap(accessors);
+    }
+
+
+    String getPackageName() {
+        return packageName;
+    }
+
+    String getEntityName() {
+        return entityName;
+    }
+
+    String getSerializerName() {
+        return serializerName;
+    }
+
+    String getQualifiedSerializerName() {
+        return packageName.isEmpty() ? serializerName : packageName + "." + serializerName;
+    }
+
+    List<PlainField> getPlainFields() {
+        return plainFields;
+    }
+
+    Map<String, Accessor> getAccessors() {
+        return accessors;
+    }
+
+
+    /**
+     * How field is read in generated source
+     */
+    static final class FieldAccess {
+
+        /**
+         * Class the receiver is cast to, null if no cast is needed
+         */
+        private final String castTo;
+
+        /**
+         * Member selection appended to the receiver: ".name" or ".getName()"
+         */
+        private final String member;
+
+
+        FieldAccess(String castTo, String member) {
+            this.castTo = castTo;
+            this.member = member;
+        }
+
+
+        /**
+         * @param receiver expression of the entity type
+         * @return expression, which reads the field
+         */
+        String on(String receiver) {
+            return castTo == null ? receiver + member : "((" + castTo + ") " + receiver + ")" + member;
+        }
+    }
+
+
+    /**
+     * Accessor returned by {@code HydraEntitySerializer#getAccessor}
+     */
+    static final class Accessor {
+
+        /**
+         * FieldAccessor, LongFieldAccessor or IntFieldAccessor
+         */
+        private final String type;
+
+        private final FieldAccess access;
+
+
+        Accessor(String type, FieldAccess access) {
+            this.type = type;
+            this.access = access;
+        }
+
+
+        String getType() {
+            return type;
+        }
+
+        FieldAccess getAccess() {
+            return access;
+        }
+    }
+
+
+    /**
+     * Way the value is written, depends on the declared type
+     */
+    enum ValueKind {
+
+        /**
+         * boolean, byte, short, int, long, Boolean, Byte, Short, Integer, Long and String.
+         * Written by JsonWriter directly
+         */
+        DIRECT,
+
+        CHAR,
+
+        DOUBLE,
+
+        FLOAT,
+
+        /**
+         * Double and Float
+         */
+        BOXED_FLOATING_POINT,
+
+        /**
+         * Anything else, written by Gson's adapter
+         */
+        OBJECT
+    }
+
+
+    /**
+     * Field written by {@code HydraEntitySerializer#writeFields}
+     */
+    static final class PlainField {
+
+        private final String jsonName;
+
+        private final String fieldName;
+
+        /**
+         * Qualified name of the class, which declares the field
+         */
+        private final String declaringClass;
+
+        private final ValueKind kind;
+
+        private final FieldAccess access;
+
+
+        PlainField(String jsonName, String fieldName, String declaringClass, ValueKind kind, FieldAccess access) {
+            this.jsonName = jsonName;
+            this.fieldName = fieldName;
+            this.declaringClass = declaringClass;
+            this.kind = kind;
+            this.access = access;
+        }
+
+
+        String getJsonName() {
+            return jsonName;
+        }
+
+        String getFieldName() {
+            return fieldName;
+        }
+
+        String getDeclaringClass() {
+            return declaringClass;
+        }
+
+        ValueKind getKind() {
+            return kind;
+        }
+
+        FieldAccess getAccess() {
+            return access;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.omenstudio.hydra.processor;
+
+import com.github.omenstudio.hydra.processor.SerializerModel.Accessor;
+import com.github.omenstudio.hydra.processor.SerializerModel.PlainField;
+
+import javax.lang.model.util.Elements;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Writes source of the serializer described by {@link SerializerModel}
+ */
+class SerializerSourceWriter {
+
+    private final SerializerModel model;
+
+    private final Elements elements;
+
+
+    SerializerSourceWriter(SerializerModel model, Elements elements) {
+        this.model = model;
+        this.elements = elements;
+    }
+
+
+    void write(Writer writer) throws IOException {
+        PrintWriter out = new PrintWriter(writer);
+        String entity = model.getEntityName();
+        List<PlainField> plainFields = model.getPlainFields();
+
+        if (!model.getPackageName().isEmpty()) {
+            out.println("package " + model.getPackageName() + ";");
+            out.println();
+        }
+        out.println("import com.github.omenstudio.hydra.metadata.FieldAccessor;");
+        out.println("import com.github.omenstudio.hydra.metadata.IntFieldAccessor;");
+        out.println("import com.github.omenstudio.hydra.metadata.LongFieldAccessor;");
+        out.println("import com.github.omenstudio.hydra.serializer.HydraEntitySerializer;");
+        out.println("import com.github.omenstudio.hydra.serializer.HydraSerializers;");
+        out.println("import com.google.gson.Gson;");
+        out.println("import com.google.gson.reflect.TypeToken;");
+        out.println("import com.google.gson.stream.JsonWriter;");
+        out.println();
+        out.println("import java.io.IOException;");
+        out.println();
+        out.println();
+        out.println("/**");
+        out.println(" * Serializer of {@link " + entity + "}, generated by hydra-processor. Do not edit");
+        out.println(" */");
+        out.println("public final class " + model.getSerializerName() + " implements HydraEntitySerializer<" + entity + "> {");
+        out.println();
+
+        // Declared types of fields written by Gson are resolved once
+        for (int i = 0; i < plainFields.size(); i++) {
+            PlainField field = plainFields.get(i);
+            if (field.getKind() == SerializerModel.ValueKind.OBJECT) {
+                out.println("    private static final TypeToken<?> TYPE_" + i + " = HydraSerializers.getFieldType(" +
+                        field.getDeclaringClass() + ".class, " + literal(field.getFieldName()) + ");");
+                out.println();
+            }
+        }
+
+        out.println();
+        out.println("    @Override");
+        out.println("    public void writeFields(" + entity + " entity, JsonWriter out, Gson gson) throws IOException {");
+        for (int i = 0; i < plainFields.size(); i++) {
+            writeField(out, plainFields.get(i), i);
+        }
+        out.println("    }");
+        out.println();
+        out.println();
+        out.println("    @Override");
+        out.println("    public FieldAccessor getAccessor(String fieldName) {");
+        out.println("        switch (fieldName) {");
+        for (Map.Entry<String, Accessor> accessor : model.getAccessors().entrySet()) {
+            Accessor value = accessor.getValue();
+            String cast = value.getType().equals("FieldAccessor") ? "" : "(" + value.getType() + ") ";
+
+            out.println("            case " + literal(accessor.getKey()) + ":");
+            out.println("                return " + cast + "entity -> " + value.getAccess().on("((" + entity + ") entity)") + ";");
+        }
+        out.println("            default:");
+        out.println("                return null;");
+        out.println("        }");
+        out.println("    }");
+        out.println("}");
+
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Can't write " + model.getQualifiedSerializerName());
+        }
+    }
+
+
+    private void writeField(PrintWriter out, PlainField field, int index) {
+        String value = field.getAccess().on("entity");
+        String name = "out.name(" + literal(field.getJsonName()) + ")";
+
+        switch (field.getKind()) {
+            case DIRECT:
+                out.println("        " + name + ".value(" + value + ");");
+                break;
+            case CHAR:
+                out.println("        " + name + ".value(String.valueOf(" + value + "));");
+                break;
+            case DOUBLE:
+            case BOXED_FLOATING_POINT:
+                out.println("        HydraSerializers.writeFloatingPoint(" + name + ", " + value + ");");
+                break;
+            case FLOAT:
+                // Boxed explicitly: widening to double would change its string representation
+                out.println("        HydraSerializers.writeFloatingPoint(" + name + ", Float.valueOf(" + value + "));");
+                break;
+            default:
+                // Gson skips fields referencing the object itself
+                String variable = "value" + index;
+                out.println("        Object " + variable + " = " + value + ";");
+                out.println("        if (" + variable + " != entity) {");
+                out.println("            HydraSerializers.writeValue(" + name + ", gson, TYPE_" + index + ", " + variable + ");");
+                out.println("        }");
+        }
+    }
+
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+}
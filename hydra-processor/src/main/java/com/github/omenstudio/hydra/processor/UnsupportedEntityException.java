@@ -0,0 +1,12 @@
+package com.github.omenstudio.hydra.processor;
+
+
+/**
+ * Thrown when serializer can't be generated for the entity, message explains why
+ */
+class UnsupportedEntityException extends Exception {
+
+    UnsupportedEntityException(String message) {
+        super(message);
+    }
+}
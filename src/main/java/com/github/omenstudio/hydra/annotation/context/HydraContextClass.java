@@ -1,13 +1,30 @@
 package com.github.omenstudio.hydra.annotation.context;
 
 
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface HydraContextClass {
+
+    /**
+     * @see HydraGetRequest#maxAge()
+     */
+    long maxAge() default -1;
+
+    /**
+     * @see HydraGetRequest#privateCache()
+     */
+    boolean privateCache() default false;
+
+    /**
+     * @see HydraGetRequest#immutable()
+     */
+    boolean immutable() default false;
 }
@@ -1,6 +1,8 @@
 package com.github.omenstudio.hydra.annotation.context;
 
 
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -9,7 +11,22 @@ import java.lang.annotation.Target;
 
 
 
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface HydraContextEntryPoint {
+
+    /**
+     * @see HydraGetRequest#maxAge()
+     */
+    long maxAge() default -1;
+
+    /**
+     * @see HydraGetRequest#privateCache()
+     */
+    boolean privateCache() default false;
+
+    /**
+     * @see HydraGetRequest#immutable()
+     */
+    boolean immutable() default false;
 }
@@ -10,7 +10,23 @@ import java.lang.annotation.Target;
 public @interface HydraEntity {
     String value();
 
+    /**
+     * <p>
+     * Path to entity relative to the API address. By default it is built from the class name: "/books/".
+     *
+     * <p>
+     * Path may be an RFC 6570 template, for instance "/users/{userId}/orders/{id}".
+     * Variables are names of entity fields, {@code {id}} is the identifier field.
+     * Values are percent-encoded, except for {@code {+variable}} expressions,
+     * which keep reserved characters. Identifier is appended to a path without variables as is.
+     *
+     * @see HydraId
+     */
     String pathToEntity() default "";
 
+    /**
+     * Path to collection relative to the API address. May be a template like {@link #pathToEntity()},
+     * variables are taken from collection members. If there is no member, variables are expanded to nothing.
+     */
     String pathToCollection() default "";
 }
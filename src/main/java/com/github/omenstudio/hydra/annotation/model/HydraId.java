@@ -0,0 +1,17 @@
+package com.github.omenstudio.hydra.annotation.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks entity identifier field, which is used in entity IRI.
+ * Field may be declared in a superclass. Without this annotation field named "id" is used.
+ *
+ * @see HydraEntity#pathToEntity()
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HydraId {
+}
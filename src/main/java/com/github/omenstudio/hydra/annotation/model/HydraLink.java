@@ -11,4 +11,13 @@ public @interface HydraLink {
     String value();
 
     boolean includeInCollection() default false;
+
+    /**
+     * How many levels of links may be embedded through this link. With 0 linked entities
+     * are written as bare references {"@id": ...}, with 1 they are embedded, but their own links are references.
+     * Negative value means the global limit. Own limit can only lower the global one.
+     *
+     * @see com.github.omenstudio.hydra.utils.HydraSettings#getMaxEmbeddingDepth()
+     */
+    int maxDepth() default -1;
 }
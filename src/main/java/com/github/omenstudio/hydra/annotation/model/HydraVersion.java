@@ -0,0 +1,17 @@
+package com.github.omenstudio.hydra.annotation.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks entity field, which changes on every entity modification: version number or last update time.
+ * Response ETag is calculated from it, so conditional requests are answered without serialization.
+ * Update times of {@link java.util.Date} and {@code java.time} types are taken as epoch time,
+ * numbers are taken as is, values of other types as hash of their string representation.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HydraVersion {
+}
@@ -0,0 +1,31 @@
+package com.github.omenstudio.hydra.annotation.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * <p>
+ * Marks {@link HydraGetRequest} method, which serialized entities are kept by the framework
+ * and served again without serialization. Entity is still returned by the method every time,
+ * it is looked up by its class, id and {@link com.github.omenstudio.hydra.annotation.model.HydraVersion} field.
+ *
+ * <p>
+ * Only single entities with id are cached, collections are serialized as usual.
+ * Entries of the class are dropped when {@link HydraPostRequest}, {@link HydraPutRequest}
+ * or {@link HydraDeleteRequest} method writes an entity of the class.
+ * Entities without version field may be served stale until ttl expires, if they are modified some other way.
+ *
+ * @see com.github.omenstudio.hydra.cache.ResponseCache
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HydraCacheable {
+
+    /**
+     * How long serialized entity is kept, in seconds
+     */
+    long ttl() default 60;
+}
@@ -11,11 +11,33 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 @CrossOrigin
 @RequestMapping(method = RequestMethod.GET, produces = "application/ld+json")
 public @interface HydraGetRequest {
     @AliasFor(annotation = RequestMapping.class, attribute = "path")
     String[] value() default {};
+
+    /**
+     * Cache-Control max-age in seconds, negative value means "no-cache"
+     */
+    long maxAge() default -1;
+
+    /**
+     * Adds "private" to Cache-Control, so response is not stored by shared caches
+     */
+    boolean privateCache() default false;
+
+    /**
+     * Adds "immutable" to Cache-Control, makes sense only with max-age
+     */
+    boolean immutable() default false;
+
+    /**
+     * Sends ETag calculated from the body of entities without
+     * {@link com.github.omenstudio.hydra.annotation.model.HydraVersion}, even if request has no If-None-Match.
+     * Such body has to be encoded before it is sent, so by default it is calculated only to answer If-None-Match
+     */
+    boolean contentETag() default false;
 }
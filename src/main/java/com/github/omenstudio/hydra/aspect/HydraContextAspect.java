@@ -1,7 +1,13 @@
 package com.github.omenstudio.hydra.aspect;
 
 
+import com.github.omenstudio.hydra.annotation.context.HydraContextClass;
+import com.github.omenstudio.hydra.annotation.context.HydraContextCollection;
+import com.github.omenstudio.hydra.annotation.context.HydraContextEntryPoint;
 import com.github.omenstudio.hydra.builder.ContextBuilder;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import com.github.omenstudio.hydra.config.AspectModeCondition;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -9,12 +15,14 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 
 @Slf4j
 @Aspect
+@Conditional(AspectModeCondition.class)
 @Order(3)
 @Component
 public class HydraContextAspect {
@@ -22,19 +30,22 @@ public class HydraContextAspect {
     @Autowired
     private ContextBuilder contextBuilder;
 
+    @Autowired
+    private ResponseBuilder responseBuilder;
+
 
     @Pointcut("@annotation(com.github.omenstudio.hydra.annotation.context.HydraContextEntryPoint)")
     public void requestForEntryPoint() {}
 
 
     @SneakyThrows
-    @Around("requestForEntryPoint()")
-    public Object makeResponseForEntryPoint(ProceedingJoinPoint joinPoint) {
+    @Around(value = "requestForEntryPoint() && @annotation(entryPoint)", argNames = "joinPoint,entryPoint")
+    public Object makeResponseForEntryPoint(ProceedingJoinPoint joinPoint, HydraContextEntryPoint entryPoint) {
         Object returnedFromJoinPoint = joinPoint.proceed();
 
         String[] params = ((String[]) returnedFromJoinPoint);
 
-        return contextBuilder.buildForEntryPoint(params);
+        return responseBuilder.buildResponse(contextBuilder.getContextForEntryPoint(params), CachePolicy.of(entryPoint));
     }
 
 
@@ -43,9 +54,10 @@ public class HydraContextAspect {
 
 
     @SneakyThrows
-    @Around("requestForClass()")
-    public Object makeResponseForClass(ProceedingJoinPoint joinPoint) {
-        return contextBuilder.buildForClass(((Class) joinPoint.proceed()));
+    @Around(value = "requestForClass() && @annotation(contextClass)", argNames = "joinPoint,contextClass")
+    public Object makeResponseForClass(ProceedingJoinPoint joinPoint, HydraContextClass contextClass) {
+        return responseBuilder.buildResponse(contextBuilder.getContextForClass(((Class) joinPoint.proceed())),
+                CachePolicy.of(contextClass));
     }
 
 
@@ -54,8 +66,9 @@ public class HydraContextAspect {
 
 
     @SneakyThrows
-    @Around("requestForCollection()")
-    public Object makeResponseForCollection(ProceedingJoinPoint joinPoint) {
-        return contextBuilder.buildForCollection(((Class) joinPoint.proceed()));
+    @Around(value = "requestForCollection() && @annotation(contextCollection)", argNames = "joinPoint,contextCollection")
+    public Object makeResponseForCollection(ProceedingJoinPoint joinPoint, HydraContextCollection contextCollection) {
+        return responseBuilder.buildResponse(contextBuilder.getContextForCollection(((Class) joinPoint.proceed())),
+                CachePolicy.of(contextCollection));
     }
 }
@@ -1,18 +1,34 @@
 package com.github.omenstudio.hydra.aspect;
 
+import com.github.omenstudio.hydra.annotation.request.HydraCacheable;
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import com.github.omenstudio.hydra.builder.AsyncResponseBuilder;
 import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import com.github.omenstudio.hydra.config.AspectModeCondition;
+import com.github.omenstudio.hydra.handler.HydraHandlerMethod;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Slf4j
 @Aspect
+@Conditional(AspectModeCondition.class)
 @Component
 @Order(1)
 public class HydraControllerAspect {
@@ -20,6 +36,11 @@ public class HydraControllerAspect {
     @Autowired
     private ResponseBuilder responseBuilder;
 
+    @Autowired
+    private AsyncResponseBuilder asyncResponseBuilder;
+
+    private final Map<Method, HydraHandlerMethod> methods = new ConcurrentHashMap<>();
+
 
     @Pointcut("@annotation(com.github.omenstudio.hydra.annotation.request.HydraGetRequest)")
     public void hydraGetRequest() {
@@ -36,14 +57,75 @@ public class HydraControllerAspect {
     }
 
 
+    @Pointcut("@annotation(com.github.omenstudio.hydra.annotation.request.HydraDeleteRequest)")
+    public void hydraDeleteRequest() {
+    }
+
+
     @SneakyThrows
-    @Around("hydraGetRequest() || hydraPostRequest() || hydraPutRequest()")
-    public Object makeHydraResponseForGet(ProceedingJoinPoint thisJoinPoint) {
+    @Around(value = "hydraGetRequest() && @annotation(getRequest)", argNames = "thisJoinPoint,getRequest")
+    public Object makeHydraResponseForGet(ProceedingJoinPoint thisJoinPoint, HydraGetRequest getRequest) {
+
+        HydraCacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) thisJoinPoint.getSignature()).getMethod(), HydraCacheable.class);
+        CachePolicy cachePolicy = CachePolicy.of(getRequest, cacheable);
+        if (cachePolicy.getResponseCacheTtl() > 0) {
+            responseBuilder.captureCacheGeneration();
+        }
 
         Object objectFromController = thisJoinPoint.proceed();
 
+        if (AsyncResponseBuilder.isAsync(objectFromController)) {
+            return asyncResponseBuilder.buildResponse(objectFromController,
+                    result -> responseBuilder.buildResponse(result, cachePolicy));
+        }
 
-        return responseBuilder.buildResponse(objectFromController);
+        return responseBuilder.buildResponse(objectFromController, cachePolicy);
+    }
+
+
+    @SneakyThrows
+    @Around("hydraPostRequest() || hydraPutRequest()")
+    public Object makeHydraResponseForUpdate(ProceedingJoinPoint thisJoinPoint) {
+
+        return makeHydraResponseForWrite(thisJoinPoint, false);
     }
 
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Around("hydraDeleteRequest()")
+    public Object makeHydraResponseForDelete(ProceedingJoinPoint thisJoinPoint) {
+
+        return makeHydraResponseForWrite(thisJoinPoint, true);
+    }
+
+
+    /**
+     * Drops cached responses of written entities and builds response of the written value.
+     * Nothing is built for void methods and for DELETE returning nothing
+     */
+    @SneakyThrows
+    private Object makeHydraResponseForWrite(ProceedingJoinPoint thisJoinPoint, boolean delete) {
+        Object objectFromController = thisJoinPoint.proceed();
+
+        Method method = ((MethodSignature) thisJoinPoint.getSignature()).getMethod();
+        Set<Class<?>> writtenClasses = methods.computeIfAbsent(method, HydraHandlerMethod::resolve).getWrittenClasses();
+
+        if (objectFromController == null && (delete || method.getReturnType() == void.class)) {
+            responseBuilder.invalidateCachedResponses(null, writtenClasses);
+            return null;
+        }
+
+        if (AsyncResponseBuilder.isAsync(objectFromController)) {
+            // Result is completed out of the request, classes are known by the request path only here
+            responseBuilder.invalidateCachedResponses(null, writtenClasses);
+            return asyncResponseBuilder.buildResponse(objectFromController, result -> {
+                responseBuilder.invalidateCachedResponses(result, Collections.emptySet());
+                return responseBuilder.buildResponse(result);
+            });
+        }
+
+        responseBuilder.invalidateCachedResponses(objectFromController, writtenClasses);
+        return responseBuilder.buildResponse(objectFromController);
+    }
+}
@@ -0,0 +1,269 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+
+/**
+ * <p>
+ * Builds responses for asynchronous results of Web MVC controllers:
+ * {@link CompletionStage} (CompletableFuture), {@link ListenableFuture}, {@link DeferredResult},
+ * {@link Callable} and {@link WebAsyncTask}.
+ *
+ * <p>
+ * Response is built as a continuation of the result, on serialization executor,
+ * and returned to Spring MVC as the same kind of asynchronous value.
+ * So servlet thread is released while the result is being computed and serialized.
+ * Current request is bound to the executor thread while response is built.
+ *
+ * <p>
+ * Executor is a bounded pool configured by {@link HydraSettings#getSerializationThreads()}
+ * and {@link HydraSettings#getSerializationQueueCapacity()}. When its queue is full,
+ * response is built by the thread, which has completed the result.
+ * To use another executor, define {@link java.util.concurrent.Executor} bean named
+ * {@value #EXECUTOR_BEAN_NAME}.
+ *
+ * <p>
+ * Callable may block, so it is left to the async executor of Spring MVC, or to the executor of WebAsyncTask.
+ * Its response is built and encoded by the same thread right after the call.
+ * Timeout and callbacks of the returned DeferredResult are not carried over,
+ * MVC default async timeout is applied instead.
+ */
+@Slf4j
+@Component
+public class AsyncResponseBuilder {
+
+    public static final String EXECUTOR_BEAN_NAME = "hydraSerializationExecutor";
+
+    @Autowired(required = false)
+    @Qualifier(EXECUTOR_BEAN_NAME)
+    private volatile Executor executor;
+
+    /**
+     * Executor created by this builder, null if it is provided by application
+     */
+    private ExecutorService ownExecutor;
+
+
+    /**
+     * @param objectFromController - object returned by Web MVC controller
+     * @return true if object is an asynchronous result, which is supported
+     */
+    public static boolean isAsync(Object objectFromController) {
+        return objectFromController instanceof CompletionStage ||
+                objectFromController instanceof ListenableFuture ||
+                objectFromController instanceof DeferredResult ||
+                objectFromController instanceof Callable ||
+                objectFromController instanceof WebAsyncTask;
+    }
+
+
+    /**
+     * Attaches response building to the asynchronous result
+     *
+     * @param asyncResult     asynchronous object returned by Web MVC controller
+     * @param responseBuilder builds response from the result value, e.g. {@link ResponseBuilder#buildResponse(Object)}
+     * @return asynchronous value of the same kind, which is completed by built response
+     * @see #isAsync
+     */
+    @SuppressWarnings("unchecked")
+    public Object buildResponse(Object asyncResult, Function<Object, Object> responseBuilder) {
+        Function<Object, Object> boundBuilder = bindToCurrentRequest(responseBuilder.andThen(AsyncResponseBuilder::encodeBody));
+
+        if (asyncResult instanceof CompletionStage) {
+            return buildFutureResponse((CompletionStage<Object>) asyncResult, boundBuilder);
+        }
+
+        if (asyncResult instanceof ListenableFuture) {
+            return buildFutureResponse(((ListenableFuture<Object>) asyncResult).completable(), boundBuilder);
+        }
+
+        if (asyncResult instanceof DeferredResult) {
+            return buildDeferredResponse((DeferredResult<Object>) asyncResult, boundBuilder);
+        }
+
+        if (asyncResult instanceof WebAsyncTask) {
+            WebAsyncTask<?> task = (WebAsyncTask<?>) asyncResult;
+            Callable<Object> callable = thenApply(task.getCallable(), boundBuilder);
+            return task.getExecutor() != null
+                    ? new WebAsyncTask<>(task.getTimeout(), task.getExecutor(), callable)
+                    : new WebAsyncTask<>(task.getTimeout(), callable);
+        }
+
+        if (asyncResult instanceof Callable) {
+            return thenApply((Callable<?>) asyncResult, boundBuilder);
+        }
+
+        throw new IllegalArgumentException("Not an asynchronous result: " + asyncResult);
+    }
+
+
+    /**
+     * Unlike thenApplyAsync, failure is passed to Spring MVC exactly as it has been received,
+     * without wrapping into {@link java.util.concurrent.CompletionException}
+     */
+    private CompletableFuture<Object> buildFutureResponse(CompletionStage<Object> future,
+                                                          Function<Object, Object> responseBuilder) {
+        CompletableFuture<Object> response = new CompletableFuture<>();
+
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                response.completeExceptionally(error);
+                return;
+            }
+
+            execute(() -> response.complete(responseBuilder.apply(result)), response::completeExceptionally);
+        });
+
+        return response;
+    }
+
+
+    private DeferredResult<Object> buildDeferredResponse(DeferredResult<Object> deferredResult,
+                                                         Function<Object, Object> responseBuilder) {
+        DeferredResult<Object> response = new DeferredResult<>();
+
+        deferredResult.setResultHandler(result -> {
+            // Error result is passed to Spring MVC as is
+            if (result instanceof Throwable) {
+                response.setErrorResult(result);
+                return;
+            }
+
+            execute(() -> response.setResult(responseBuilder.apply(result)), response::setErrorResult);
+        });
+
+        return response;
+    }
+
+
+    /**
+     * Runs task on serialization executor, any failure including rejection is passed to the error handler
+     */
+    private void execute(Runnable task, Consumer<Throwable> errorHandler) {
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    errorHandler.accept(e);
+                }
+            });
+        } catch (Throwable e) {
+            errorHandler.accept(e);
+        }
+    }
+
+
+    private static Callable<Object> thenApply(Callable<?> callable, Function<Object, Object> responseBuilder) {
+        return () -> responseBuilder.apply(callable.call());
+    }
+
+
+    /**
+     * JSON-LD body is encoded right away, by the thread, which has built the response,
+     * rather than by the container thread, which writes the response
+     */
+    private static Object encodeBody(Object response) {
+        if (response instanceof ResponseEntity && ((ResponseEntity<?>) response).getBody() instanceof JsonLdBody) {
+            ((JsonLdBody) ((ResponseEntity<?>) response).getBody()).encode(false);
+        }
+        return response;
+    }
+
+
+    /**
+     * Executor thread knows nothing about the request, so the current one is bound while response is built
+     */
+    private static Function<Object, Object> bindToCurrentRequest(Function<Object, Object> responseBuilder) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        return result -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                return responseBuilder.apply(result);
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        };
+    }
+
+
+    /**
+     * Default executor is created on the first asynchronous result
+     */
+    private Executor getExecutor() {
+        Executor current = executor;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (executor == null) {
+                ownExecutor = createExecutor();
+                executor = ownExecutor;
+            }
+            return executor;
+        }
+    }
+
+
+    private static ExecutorService createExecutor() {
+        int threads = HydraSettings.getSerializationThreads();
+        log.info("#createExecutor: " + threads + " threads, queue capacity " + HydraSettings.getSerializationQueueCapacity());
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(HydraSettings.getSerializationQueueCapacity()),
+                new SerializationThreadFactory(),
+                // Full queue slows down producers instead of failing requests
+                (task, rejectedBy) -> task.run());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+
+    private static final class SerializationThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "hydra-serialization-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.omenstudio.hydra.builder;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * <p>
+ * Byte buffers shared by all threads which encode responses. Buffers are pooled by power of two sizes
+ * from {@link #MIN_SIZE} to {@link #MAX_SIZE}, a few buffers of each size.
+ *
+ * <p>
+ * Pool also tracks average size of recent responses, so a response gets buffer of about its size:
+ * small responses don't take big buffers, big ones aren't copied from one small buffer to another.
+ *
+ * @see Utf8BufferWriter
+ */
+final class BufferPool {
+
+    static final int MIN_SIZE = 1024;
+
+    static final int MAX_SIZE = 64 * 1024;
+
+    private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+
+    private static final int SIZES = Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SIZE_SHIFT + 1;
+
+    /**
+     * Buffers of each size kept for reuse, others are left to garbage collector
+     */
+    private static final int MAX_POOLED_PER_SIZE = 16;
+
+    @SuppressWarnings("unchecked")
+    private static final Queue<byte[]>[] POOLS = new Queue[SIZES];
+
+    private static final AtomicInteger[] POOLED = new AtomicInteger[SIZES];
+
+    static {
+        for (int i = 0; i < SIZES; i++) {
+            POOLS[i] = new ConcurrentLinkedQueue<>();
+            POOLED[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Moving average of response sizes. Updated without synchronization, lost updates don't matter
+     */
+    private static volatile int averageSize = MIN_SIZE;
+
+
+    private BufferPool() {
+    }
+
+
+    /**
+     * @param size required size, rounded up to power of two and limited by {@link #MAX_SIZE}
+     * @return buffer of at least MIN_SIZE bytes, content is undefined
+     */
+    static byte[] acquire(int size) {
+        int index = indexOf(size);
+        byte[] buffer = POOLS[index].poll();
+        if (buffer == null) {
+            return new byte[MIN_SIZE << index];
+        }
+
+        POOLED[index].decrementAndGet();
+        return buffer;
+    }
+
+
+    /**
+     * Returns buffer taken by {@link #acquire(int)}
+     */
+    static void release(byte[] buffer) {
+        int index = indexOf(buffer.length);
+        if (buffer.length != MIN_SIZE << index)
+            return;
+
+        if (POOLED[index].incrementAndGet() > MAX_POOLED_PER_SIZE) {
+            POOLED[index].decrementAndGet();
+            return;
+        }
+
+        POOLS[index].offer(buffer);
+    }
+
+
+    /**
+     * @return size of buffer, which most likely fits the next response
+     */
+    static int getExpectedSize() {
+        return averageSize;
+    }
+
+
+    /**
+     * Takes size of written response into account
+     */
+    static void recordSize(long size) {
+        int current = averageSize;
+        int limited = (int) Math.max(MIN_SIZE, Math.min(size, MAX_SIZE));
+        averageSize = current + (limited - current) / 8;
+    }
+
+
+    private static int indexOf(int size) {
+        if (size <= MIN_SIZE)
+            return 0;
+        if (size >= MAX_SIZE)
+            return SIZES - 1;
+
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+    }
+}
@@ -1,21 +1,61 @@
 package com.github.omenstudio.hydra.builder;
 
-import com.github.omenstudio.hydra.annotation.model.HydraEntity;
 import com.github.omenstudio.hydra.annotation.model.HydraField;
+import com.github.omenstudio.hydra.cache.StaticDocument;
+import com.github.omenstudio.hydra.cache.StaticDocumentCache;
 import com.github.omenstudio.hydra.annotation.model.HydraLink;
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.github.omenstudio.hydra.metadata.FieldDescriptor;
 import com.github.omenstudio.hydra.utils.HydraUrlResolver;
 import com.google.gson.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
 
 
 @Slf4j
 @Component
 public class ContextBuilder {
 
+    private final StaticDocumentCache<Class> classContexts =
+            new StaticDocumentCache<>("classContexts", beanClass -> buildForClass(beanClass).toString());
+
+    private final StaticDocumentCache<Class> collectionContexts =
+            new StaticDocumentCache<>("collectionContexts", itemClass -> buildForCollection(itemClass).toString());
+
+    private final StaticDocumentCache<List<String>> entryPointContexts =
+            new StaticDocumentCache<>("entryPointContexts", links -> buildForEntryPoint(links.toArray(new String[0])).toString());
+
+
+    /**
+     * Same as {@link #buildForEntryPoint}, but the context is built only once
+     * and then served from cache as pre-encoded bytes
+     */
+    public StaticDocument getContextForEntryPoint(String... links) {
+        return entryPointContexts.get(Arrays.asList(links));
+    }
+
+
+    /**
+     * Same as {@link #buildForCollection}, but the context is built only once
+     * and then served from cache as pre-encoded bytes
+     */
+    public StaticDocument getContextForCollection(Class collectionItemClass) {
+        return collectionContexts.get(collectionItemClass);
+    }
+
+
+    /**
+     * Same as {@link #buildForClass}, but the context is built only once
+     * and then served from cache as pre-encoded bytes
+     */
+    public StaticDocument getContextForClass(Class beanClass) {
+        return classContexts.get(beanClass);
+    }
+
     
     public JsonObject buildForEntryPoint(String... links) {
         JsonObject resultJson = new JsonObject();
@@ -59,22 +99,22 @@ public class ContextBuilder {
 
     
     private JsonObject buildInfoAboutEntity(Class beanClass, JsonObject jsonObject) {
-        Annotation hydraTypeAnnotation = beanClass.getDeclaredAnnotation(HydraEntity.class);
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(beanClass);
 
-        if (hydraTypeAnnotation == null) {
+        if (!descriptor.isEntity()) {
             log.error("Can't build context for class " + beanClass.toString() + ". " +
                     "There are no @HydraField annotation on class");
             return jsonObject;
         }
 
-        jsonObject.addProperty(beanClass.getSimpleName(), ((HydraEntity) hydraTypeAnnotation).value());
+        jsonObject.addProperty(descriptor.getSimpleName(), descriptor.getTypeIri());
         return jsonObject;
     }
 
     
     private JsonObject buildInfoAboutFields(Class beanClass, JsonObject jsonObject) throws NullPointerException {
 
-        for (Field field : beanClass.getDeclaredFields()) {
+        for (FieldDescriptor field : EntityDescriptorRegistry.get(beanClass).getFields()) {
 
             // Build context only for fields, which have annotation @HydraType
             buildInfoAboutHydraTypeField(field, beanClass, jsonObject);
@@ -87,8 +127,8 @@ public class ContextBuilder {
         return jsonObject;
     }
 
-    private void buildInfoAboutHydraTypeField(Field field, Class beanClass, JsonObject resultObject) {
-        HydraField annotation = field.getDeclaredAnnotation(HydraField.class);
+    private void buildInfoAboutHydraTypeField(FieldDescriptor field, Class beanClass, JsonObject resultObject) {
+        HydraField annotation = field.getHydraField();
         if (annotation == null)
             return;
 
@@ -98,7 +138,7 @@ public class ContextBuilder {
         // If annotation has been used with different keys/values -> skip
         if (values.length == 0 || values.length > 1 && values.length != keys.length) {
             log.warn("Can't build context for field " + field.getName() +
-                    " of class " + field.getDeclaringClass().toString() + ". " +
+                    " of class " + beanClass.toString() + ". " +
                     "Illegal @HydraField annotation arguments");
             return;
         }
@@ -118,8 +158,8 @@ public class ContextBuilder {
     }
 
 
-    private void buildInfoAboutFieldWithLink(Field field, Class beanClass, JsonObject resultJson) {
-        HydraLink annotation = field.getDeclaredAnnotation(HydraLink.class);
+    private void buildInfoAboutFieldWithLink(FieldDescriptor field, Class beanClass, JsonObject resultJson) {
+        HydraLink annotation = field.getHydraLink();
         if (annotation == null)
             return;
 
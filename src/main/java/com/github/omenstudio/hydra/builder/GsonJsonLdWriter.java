@@ -0,0 +1,121 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+
+
+/**
+ * {@link JsonLdWriter} over Gson {@link JsonLdJsonWriter}
+ *
+ * @see GsonJsonLdWriterFactory
+ */
+final class GsonJsonLdWriter implements JsonLdWriter {
+
+    private final JsonLdJsonWriter out;
+
+    private final Gson gson;
+
+
+    GsonJsonLdWriter(JsonLdJsonWriter out, Gson gson) {
+        this.out = out;
+        this.gson = gson;
+    }
+
+
+    @Override
+    public JsonLdWriter beginObject() throws IOException {
+        out.beginObject();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter endObject() throws IOException {
+        out.endObject();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter beginArray() throws IOException {
+        out.beginArray();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter endArray() throws IOException {
+        out.endArray();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter name(String name) throws IOException {
+        out.name(name);
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter value(String value) throws IOException {
+        out.value(value);
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter value(long value) throws IOException {
+        out.value(value);
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter nullValue() throws IOException {
+        out.nullValue();
+        return this;
+    }
+
+
+    @Override
+    public JsonLdWriter jsonValue(String json) throws IOException {
+        out.jsonValue(json);
+        return this;
+    }
+
+
+    /**
+     * Gson writer is never indented here
+     */
+    @Override
+    public boolean canWriteJsonValue() {
+        return true;
+    }
+
+
+    /**
+     * Fields are written by serializer generated at compile time or, if there is no one, by Gson
+     */
+    @Override
+    public void writeFields(Object entity) throws IOException {
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(entity);
+
+        if (descriptor.getSerializer() != null) {
+            out.inlineFields(descriptor.getSerializer(), gson, entity);
+        } else {
+            out.inlineObject(gson.getAdapter(descriptor.getType()), entity);
+        }
+    }
+
+
+    /**
+     * Gson writer has no buffer of its own
+     */
+    @Override
+    public void flush() {
+    }
+}
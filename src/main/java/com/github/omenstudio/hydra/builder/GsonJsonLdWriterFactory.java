@@ -0,0 +1,30 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.utils.AnnotationJsonExclusionStrategy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.Writer;
+
+
+/**
+ * Default backend: Gson streaming {@link com.google.gson.stream.JsonWriter}. Plain entity fields
+ * are written by serializers generated at compile time, if there are ones, or by Gson reflection.
+ */
+public class GsonJsonLdWriterFactory implements JsonLdWriterFactory {
+
+    private final Gson gson;
+
+
+    public GsonJsonLdWriterFactory() {
+        gson = new GsonBuilder()
+                .setExclusionStrategies(new AnnotationJsonExclusionStrategy())
+                .create();
+    }
+
+
+    @Override
+    public JsonLdWriter create(Writer writer) {
+        return new GsonJsonLdWriter(new JsonLdJsonWriter(writer), gson);
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.metrics.HydraMetrics;
+import com.github.omenstudio.hydra.metrics.HydraMetricsListener;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * <p>
+ * Body of JSON-LD response, which is serialized only when it is written to the client.
+ * Built by {@link ResponseBuilder} and written by
+ * {@link com.github.omenstudio.hydra.converter.JsonLdHttpMessageConverter}.
+ *
+ * <p>
+ * Object returned by controller is encoded to UTF-8 straight into the response output stream
+ * through a pooled buffer, see {@link Utf8BufferWriter}. Neither string nor byte array of the whole body is made.
+ *
+ * <p>
+ * Body can be encoded in advance instead, when content ETag is needed or when encoding must happen
+ * on the current thread. It is held in pooled buffers then, until it is written.
+ */
+public final class JsonLdBody {
+
+    /**
+     * Object returned by Web MVC controller
+     */
+    @Getter
+    private final Object value;
+
+    private final JsonLdBuilder jsonLdBuilder;
+
+    private final HydraMetricsListener metricsListener;
+
+    private final String endpoint;
+
+    /**
+     * Body encoded in advance
+     */
+    private Utf8BufferWriter content;
+
+
+    JsonLdBody(Object value, JsonLdBuilder jsonLdBuilder) {
+        this.value = value;
+        this.jsonLdBuilder = jsonLdBuilder;
+        this.metricsListener = HydraMetrics.getListener();
+        this.endpoint = metricsListener != null ? ResponseMetrics.getCurrentEndpoint() : null;
+    }
+
+
+    /**
+     * Encodes body right now into pooled buffers
+     *
+     * @param withContentETag calculate ETag of the content, see {@link #getContentETag()}
+     */
+    @SneakyThrows
+    void encode(boolean withContentETag) {
+        if (content != null)
+            return;
+
+        Utf8BufferWriter writer = Utf8BufferWriter.buffered(withContentETag);
+        try {
+            write(writer);
+        } catch (Throwable e) {
+            writer.release();
+            throw e;
+        }
+        content = writer;
+    }
+
+
+    /**
+     * @return ETag of the body, null if it hasn't been encoded with ETag
+     */
+    String getContentETag() {
+        return content != null ? content.getContentETag() : null;
+    }
+
+
+    /**
+     * @return length of encoded body in bytes, null if body will be encoded while it is written
+     */
+    public Long getContentLength() {
+        return content != null ? content.size() : null;
+    }
+
+
+    /**
+     * Writes body in UTF-8
+     *
+     * @param outputStream response output stream, isn't flushed or closed
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (content != null) {
+            Utf8BufferWriter encoded = content;
+            content = null;
+            encoded.writeTo(outputStream);
+            return;
+        }
+
+        Utf8BufferWriter writer = Utf8BufferWriter.to(outputStream);
+        try {
+            write(writer);
+            writer.close();
+        } finally {
+            writer.release();
+        }
+    }
+
+
+    /**
+     * Writes body in the given charset. Charsets other than UTF-8 are written by usual {@link OutputStreamWriter}
+     *
+     * @param outputStream response output stream, isn't flushed or closed
+     * @param charset      charset requested by the client
+     */
+    public void writeTo(OutputStream outputStream, Charset charset) throws IOException {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            writeTo(outputStream);
+            return;
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, charset));
+        if (content != null) {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            writeTo(encoded);
+            writer.write(encoded.toString(StandardCharsets.UTF_8.name()));
+        } else {
+            jsonLdBuilder.writeResponse(value, writer);
+        }
+        writer.flush();
+    }
+
+
+    /**
+     * Gives back buffers of encoded body, which won't be written, e.g. when client has it already
+     */
+    void release() {
+        if (content != null) {
+            content.release();
+            content = null;
+        }
+    }
+
+
+    private void write(Utf8BufferWriter writer) throws IOException {
+        long startTime = metricsListener != null ? System.nanoTime() : 0;
+
+        jsonLdBuilder.writeResponse(value, writer);
+        writer.finish();
+
+        if (metricsListener != null) {
+            ResponseMetrics.recordSerialization(metricsListener, value, endpoint, writer.size(), System.nanoTime() - startTime);
+        }
+    }
+}
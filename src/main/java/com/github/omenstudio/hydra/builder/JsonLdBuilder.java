@@ -1,33 +1,51 @@
 package com.github.omenstudio.hydra.builder;
 
 import com.github.omenstudio.hydra.annotation.model.HydraEntity;
-import com.github.omenstudio.hydra.annotation.model.HydraField;
-import com.github.omenstudio.hydra.annotation.model.HydraLink;
-import com.github.omenstudio.hydra.utils.AnnotationJsonExclusionStrategy;
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.github.omenstudio.hydra.metadata.FieldDescriptor;
+import com.github.omenstudio.hydra.response.HydraGraph;
+import com.github.omenstudio.hydra.response.HydraPage;
+import com.github.omenstudio.hydra.utils.HydraSettings;
 import com.github.omenstudio.hydra.utils.HydraUrlResolver;
-import com.google.gson.*;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 @Slf4j
 @Component
 public class JsonLdBuilder {
 
-    private final Gson gsonBuilder;
-
-    private final JsonParser gsonParser;
+    private final JsonLdWriterFactory writerFactory;
 
 
 
     public JsonLdBuilder() {
-        gsonBuilder = new GsonBuilder()
-                .setExclusionStrategies(new AnnotationJsonExclusionStrategy())
-                .create();
-        gsonParser = new JsonParser();
+        this(new GsonJsonLdWriterFactory());
+    }
+
+
+    /**
+     * @param writerFactory JSON backend
+     */
+    public JsonLdBuilder(JsonLdWriterFactory writerFactory) {
+        this.writerFactory = writerFactory;
     }
 
 
@@ -37,64 +55,302 @@ public class JsonLdBuilder {
      *
      * @param objectFromController - object returned by Web MVC controller
      * @return response body representation in JSON-LD
-     * @see #buildResponseForCollection
-     * @see #buildResponseForEntity
+     * @see #writeResponse
      */
+    @SneakyThrows
     public String buildResponse(Object objectFromController) {
         // Depending from object type we need to call different methods
         if (objectFromController == null) {
             return null;
         }
 
+        // If can't serialize, just return pure toString()
+        if (!canWrite(objectFromController)) {
+            return objectFromController.toString();
+        }
+
+        StringWriter writer = new StringWriter();
+        writeResponse(objectFromController, writer);
+        return writer.toString();
+    }
+
+
+    /**
+     * @param objectFromController - object returned by Web MVC controller
+     * @return true if object can be presented in JSON-LD format:
+     * it is a collection, stream or iterator of entities, page, graph or HydraEntity
+     */
+    public boolean canWrite(Object objectFromController) {
+        return isCollection(objectFromController) || objectFromController instanceof HydraPage ||
+                objectFromController instanceof HydraGraph ||
+                objectFromController != null && EntityDescriptorRegistry.get(objectFromController).isEntity();
+    }
+
+
+    /**
+     * @param objectFromController - object returned by Web MVC controller
+     * @return true if object is serialized as a collection: it is a Collection, Stream or Iterator
+     */
+    public static boolean isCollection(Object objectFromController) {
+        return objectFromController instanceof Collection ||
+                objectFromController instanceof Stream ||
+                objectFromController instanceof Iterator;
+    }
+
+
+    /**
+     * Writes JSON-LD representation of the object in a single pass,
+     * without building intermediate strings or json trees
+     *
+     * @param objectFromController - collection, stream, iterator, page, graph or HydraEntity returned by Web MVC controller.
+     *                             Stream is consumed, but isn't closed
+     * @param writer               - destination, isn't closed or flushed
+     * @see #canWrite
+     * @see #writeCollection
+     * @see #writeEntity
+     */
+    public void writeResponse(Object objectFromController, Writer writer) throws IOException {
+        JsonLdWriter out = writerFactory.create(writer);
+        EmbeddingPath path = new EmbeddingPath(HydraSettings.isCompactCollections() && !isSingleEntity(objectFromController));
+
+        write(out, objectFromController, path);
+        out.flush();
+    }
+
+
+    private static boolean isSingleEntity(Object objectFromController) {
+        return !isCollection(objectFromController) && !(objectFromController instanceof HydraPage) &&
+                !(objectFromController instanceof HydraGraph);
+    }
+
+
+    private void write(JsonLdWriter out, Object objectFromController, EmbeddingPath path) throws IOException {
+
         // Collection
         if (objectFromController instanceof Collection) {
-            return buildResponseForCollection(((Collection) objectFromController));
+            Collection<?> collection = (Collection<?>) objectFromController;
+            if (!path.isCompact() && out.canWriteJsonValue() && ParallelMemberWriter.isEnabled(collection.size())) {
+                writeCollectionInParallel(out, collection);
+                return;
+            }
+
+            writeCollection(out, collection.iterator(), path);
+            return;
         }
 
-        // HydraEntity
-        String entitySerialized = buildResponseForEntity(objectFromController);
-        if (entitySerialized != null) {
-            return entitySerialized;
+        // Stream and iterator are written as collections too, members are pulled one by one
+        if (objectFromController instanceof Stream) {
+            writeCollection(out, ((Stream) objectFromController).iterator(), path);
+            return;
+        }
+        if (objectFromController instanceof Iterator) {
+            writeCollection(out, ((Iterator) objectFromController), path);
+            return;
         }
 
-        // If can't serialize, just return pure toString()
-        return objectFromController.toString();
+        // Part of collection
+        if (objectFromController instanceof HydraPage) {
+            writePage(out, ((HydraPage) objectFromController), path);
+            return;
+        }
+
+        // Several entities in one document
+        if (objectFromController instanceof HydraGraph) {
+            writeGraph(out, ((HydraGraph) objectFromController), path);
+            return;
+        }
+
+        // HydraEntity
+        writeEntity(out, objectFromController, true, path);
     }
 
 
     /**
-     * Serialize collection of entities returned by Web MVC Controller
+     * Serialize collection of entities returned by Web MVC Controller.
+     * Members are written as soon as they are taken from iterator, nothing is accumulated.
      *
-     * @param entityCollection
-     * @return
+     * @param out
+     * @param entityIterator
+     * @param path           entities being written
      */
-    private String buildResponseForCollection(Collection entityCollection) {
-        if (entityCollection.isEmpty()) {
-            return "[]";
+    private void writeCollection(JsonLdWriter out, Iterator entityIterator, EmbeddingPath path) throws IOException {
+        if (!entityIterator.hasNext()) {
+            out.beginArray().endArray();
+            return;
         }
 
-        JsonObject resultJson = new JsonObject();
-        JsonArray membersJson = new JsonArray();
         boolean inited = false;
 
-        for (Object entity : entityCollection) {
-            if (!inited) {
-                String className = entity.getClass().getSimpleName();
-                String collectionName = className + "Collection";
+        while (entityIterator.hasNext()) {
+            Object entity = entityIterator.next();
 
-                resultJson.addProperty("@id", HydraUrlResolver.getPathToCollection(entity));
-                resultJson.addProperty("@context", HydraUrlResolver.getContextsAddress() + collectionName);
-                resultJson.addProperty("@type", collectionName);
+            if (!inited) {
+                out.beginObject();
+                writeCollectionHeader(out, entity.getClass(), HydraUrlResolver.getPathToCollection(entity));
+                out.name("members").beginArray();
 
                 inited = true;
             }
 
-            membersJson.add(serializeLinkToEntity(entity));
+            writeLinkToEntity(out, entity, HydraSettings.getMaxEmbeddingDepth(), path, true);
         }
 
-        resultJson.add("members", membersJson);
+        out.endArray();
+        out.endObject();
+    }
+
+
+    /**
+     * Serialize big in-memory collection, members are written on several threads.
+     * Output is the same as of {@link #writeCollection}.
+     *
+     * @param out
+     * @param collection not empty collection
+     * @see ParallelMemberWriter
+     */
+    private void writeCollectionInParallel(JsonLdWriter out, Collection<?> collection) throws IOException {
+        List<?> members = collection instanceof List && collection instanceof RandomAccess
+                ? (List<?>) collection
+                : new ArrayList<>(collection);
+        Object firstMember = members.get(0);
+
+        out.beginObject();
+        writeCollectionHeader(out, firstMember.getClass(), HydraUrlResolver.getPathToCollection(firstMember));
+        out.name("members").beginArray();
+
+        ParallelMemberWriter.writeMembers(out, members, writerFactory, (chunkOut, chunkMembers) -> {
+            EmbeddingPath chunkPath = new EmbeddingPath(false);
+            for (Object entity : chunkMembers) {
+                writeLinkToEntity(chunkOut, entity, HydraSettings.getMaxEmbeddingDepth(), chunkPath, true);
+            }
+        });
 
-        return resultJson.toString();
+        out.endArray();
+        out.endObject();
+    }
+
+
+    /**
+     * <p>
+     * Serialize page of collection. Besides members it contains total items count, if known,
+     * and {@code hydra:PartialCollectionView} with links to the first, previous, next and last pages.
+     * Unlike collection, empty page is still written as an object.
+     *
+     * <p>
+     * For example:
+     * <pre>
+     * {
+     *     "@id": "/api/books/",
+     *     "@context": "/api/contexts/BookCollection",
+     *     "@type": "BookCollection",
+     *     "hydra:totalItems": 95,
+     *     "hydra:view": {
+     *         "@id": "/api/books/?offset=20&amp;limit=20",
+     *         "@type": "hydra:PartialCollectionView",
+     *         "hydra:first": "/api/books/?offset=0&amp;limit=20",
+     *         "hydra:previous": "/api/books/?offset=0&amp;limit=20",
+     *         "hydra:next": "/api/books/?offset=40&amp;limit=20",
+     *         "hydra:last": "/api/books/?offset=80&amp;limit=20"
+     *     },
+     *     "members": [...]
+     * }
+     * </pre>
+     *
+     * @param out
+     * @param page
+     * @param path entities being written
+     * @see HydraPage
+     */
+    private void writePage(JsonLdWriter out, HydraPage<?> page, EmbeddingPath path) throws IOException {
+        // Template variables of collection path are taken from the first member
+        Object firstMember = page.getMembers().isEmpty() ? null : page.getMembers().get(0);
+        String collectionPath = HydraUrlResolver.getPathToCollection(page.getMemberClass(), firstMember);
+
+        out.beginObject();
+        writeCollectionHeader(out, page.getMemberClass(), collectionPath);
+
+        if (page.getTotalItems() != null) {
+            out.name("hydra:totalItems").value(page.getTotalItems());
+        }
+
+        out.name("hydra:view").beginObject();
+        out.name("@id").value(page.getViewIri(collectionPath));
+        out.name("@type").value("hydra:PartialCollectionView");
+        writeIriIfPresent(out, "hydra:first", page.getFirstIri(collectionPath));
+        writeIriIfPresent(out, "hydra:previous", page.getPreviousIri(collectionPath));
+        writeIriIfPresent(out, "hydra:next", page.getNextIri(collectionPath));
+        writeIriIfPresent(out, "hydra:last", page.getLastIri(collectionPath));
+        out.endObject();
+
+        out.name("members").beginArray();
+        for (Object entity : page.getMembers()) {
+            writeLinkToEntity(out, entity, HydraSettings.getMaxEmbeddingDepth(), path, true);
+        }
+        out.endArray();
+
+        out.endObject();
+    }
+
+
+    /**
+     * Serializes several entities into single document, which shares @context between them.
+     * Each entity is written as by {@link #writeEntity}, but without its own @context.
+     *
+     * @param out
+     * @param graph
+     * @param path  entities being written
+     * @see HydraGraph
+     */
+    private void writeGraph(JsonLdWriter out, HydraGraph<?> graph, EmbeddingPath path) throws IOException {
+        // Contexts of entity classes in order of appearance
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (Object entity : graph.getMembers()) {
+            classes.add(entity.getClass());
+        }
+
+        out.beginObject();
+
+        if (classes.size() == 1) {
+            out.name("@context").value(getContextIri(classes.iterator().next()));
+        } else if (!classes.isEmpty()) {
+            out.name("@context").beginArray();
+            for (Class<?> entityClass : classes) {
+                out.value(getContextIri(entityClass));
+            }
+            out.endArray();
+        }
+
+        out.name("@graph").beginArray();
+        for (Object entity : graph.getMembers()) {
+            writeEntity(out, entity, false, path);
+        }
+        out.endArray();
+
+        out.endObject();
+    }
+
+
+    private static String getContextIri(Class<?> entityClass) {
+        return HydraUrlResolver.getContextsAddress() + EntityDescriptorRegistry.get(entityClass).getSimpleName();
+    }
+
+
+    /**
+     * Writes @id, @context and @type of collection
+     */
+    private static void writeCollectionHeader(JsonLdWriter out, Class<?> memberClass, String collectionPath) throws IOException {
+        String collectionName = EntityDescriptorRegistry.get(memberClass).getCollectionName();
+
+        out.name("@id").value(collectionPath);
+        out.name("@context").value(HydraUrlResolver.getContextsAddress() + collectionName);
+        out.name("@type").value(collectionName);
+    }
+
+
+    private static void writeIriIfPresent(JsonLdWriter out, String key, String iri) throws IOException {
+        if (iri != null) {
+            out.name(key).value(iri);
+        }
     }
 
 
@@ -117,56 +373,62 @@ public class JsonLdBuilder {
      * }
      * </pre>
      *
-     * @param entityObject Potential entity object, which can be presented in JSON-LD format
-     * @return null if object is not HydraEntity, String representing json-ld object representation elsewhere
+     * <p>
+     * Plain fields are written directly into the output by JSON backend.
+     * Then JSON-LD keywords and links are appended.
+     *
+     * @param out
+     * @param entityObject entity object, which can be presented in JSON-LD format
+     * @param withContext  false if entity is a part of document, which has @context already
+     * @param path         entities being written
      * @see HydraEntity
      */
-    private String buildResponseForEntity(Object entityObject) {
-        HydraEntity hydraEntityAnnotation = entityObject.getClass().getDeclaredAnnotation(HydraEntity.class);
-
-        if (hydraEntityAnnotation == null)
-            return null;
-
-        String className = entityObject.getClass().getSimpleName();
+    private void writeEntity(JsonLdWriter out, Object entityObject, boolean withContext,
+                             EmbeddingPath path) throws IOException {
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(entityObject);
+        String className = descriptor.getSimpleName();
+
+        out.beginObject();
+        out.writeFields(entityObject);
+        out.name("@id").value(path.getIri(entityObject));
+        if (withContext) {
+            out.name("@context").value(HydraUrlResolver.getContextsAddress() + className);
+        }
+        out.name("@type").value(className);
 
-        JsonObject resultJson = gsonParser.parse(gsonBuilder.toJson(entityObject)).getAsJsonObject();
-        resultJson.addProperty("@id", HydraUrlResolver.getPathToEntity(entityObject));
-        resultJson.addProperty("@context", HydraUrlResolver.getContextsAddress() + className);
-        resultJson.addProperty("@type", className);
+        // Links of the entity are the first level, so the entity itself is embedded one level deeper than them
+        path.markEmbedded(entityObject, HydraSettings.getMaxEmbeddingDepth() + 1);
 
         // For each field, which must be serialized
-        for (Field entityField : entityObject.getClass().getDeclaredFields()) {
-            if (entityField.getDeclaredAnnotation(HydraLink.class) == null)
-                continue;
-
-            try {
-                entityField.setAccessible(true);
-                resultJson.add(entityField.getName(), serializeLinkTo(entityField.get(entityObject)));
-            } catch (IllegalAccessException | ClassCastException e) {
-                log.error("#buildResponseForEntity: " + e.toString());
-            }
+        path.push(entityObject);
+        for (FieldDescriptor linkField : descriptor.getLinkFields()) {
+            out.name(linkField.getName());
+            writeLinkTo(out, linkField.getValue(entityObject), linkField.limitEmbeddingDepth(HydraSettings.getMaxEmbeddingDepth()), path);
         }
+        path.pop();
 
-
-        return resultJson.toString();
+        out.endObject();
     }
 
 
     /**
      * Common method for serializing link to some object: entity of collection
      *
+     * @param out
      * @param object
-     * @return
+     * @param depth  how many more levels of links may be embedded, including this one
+     * @param path   entities being written
      *
-     * @see #serializeLinkToCollection
-     * @see #serializeLinkToEntity
+     * @see #writeLinkToCollection
+     * @see #writeLinkToEntity
      */
-    private static JsonElement serializeLinkTo(Object object) {
+    private static void writeLinkTo(JsonLdWriter out, Object object, int depth, EmbeddingPath path) throws IOException {
         if (object instanceof Collection) {
-            return serializeLinkToCollection(((Collection) object));
+            writeLinkToCollection(out, ((Collection) object), depth, path);
+            return;
         }
 
-        return serializeLinkToEntity(object);
+        writeLinkToEntity(out, object, depth, path, false);
     }
 
 
@@ -174,71 +436,202 @@ public class JsonLdBuilder {
      *
      *
      *
+     * @param out
      * @param entityCollection
-     * @return
+     * @param depth            how many more levels of links may be embedded, including this one
+     * @param path             entities being written
      */
-    private static JsonElement serializeLinkToCollection(Collection entityCollection) {
-        JsonArray answer = new JsonArray();
+    private static void writeLinkToCollection(JsonLdWriter out, Collection entityCollection, int depth,
+                                              EmbeddingPath path) throws IOException {
+        out.beginArray();
 
         for (Object entity : entityCollection) {
-            answer.add(serializeLinkToEntity(entity));
+            writeLinkToEntity(out, entity, depth, path, false);
         }
 
-        return answer;
+        out.endArray();
     }
 
 
     /**
+     * <p>
+     * Writes entity @id, @type and fields, which are marked by includeInCollection.
+     *
+     * <p>
+     * Links of the entity are embedded the same way, so depth of embedding is limited:
+     * when there are no levels left, or entity is already being written higher in the path (cycle),
+     * only bare reference {"@id": ...} is written.
+     *
+     * <p>
+     * In compact mode linked entity, which has been embedded already at least as deep, is written as reference too.
+     * Members are always written in full, otherwise the collection would consist of references.
+     *
+     * @param out
      * @param entityObject
-     * @return
+     * @param depth        how many more levels of links may be embedded, including this one
+     * @param path         entities being written
+     * @param member       true if entity is a member of the collection being written
+     * @see HydraSettings#getMaxEmbeddingDepth()
+     * @see HydraSettings#isCompactCollections()
      */
-    private static JsonObject serializeLinkToEntity(Object entityObject) {
-        if (entityObject == null)
-            return null;
+    private static void writeLinkToEntity(JsonLdWriter out, Object entityObject, int depth,
+                                          EmbeddingPath path, boolean member) throws IOException {
+        if (entityObject == null) {
+            out.nullValue();
+            return;
+        }
 
-        HydraEntity annotation = entityObject.getClass().getDeclaredAnnotation(HydraEntity.class);
+        if (depth <= 0 || path.contains(entityObject) || !member && path.isEmbedded(entityObject, depth)) {
+            out.beginObject();
+            out.name("@id").value(path.getIri(entityObject));
+            out.endObject();
+            return;
+        }
 
-        String className = entityObject.getClass().getSimpleName();
-        String itemType = annotation != null ? annotation.value() : "http://schema.org/" + className;
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(entityObject);
 
-        JsonObject itemJsonObject = new JsonObject();
-        itemJsonObject.addProperty("@id", HydraUrlResolver.getPathToEntity(entityObject));
-        itemJsonObject.addProperty("@type", itemType);
+        out.beginObject();
+        out.name("@id").value(path.getIri(entityObject));
+        out.name("@type").value(descriptor.getTypeIri());
+        path.markEmbedded(entityObject, depth);
 
         // And we need to serialize additional properties,
-        // which marked by includeInCollection property by HydraField annotation
-        for (Field entityField : entityObject.getClass().getDeclaredFields()) {
-            HydraField hydraFieldAnnotation = entityField.getDeclaredAnnotation(HydraField.class);
-            HydraLink hydraLinkAnnotation = entityField.getDeclaredAnnotation(HydraLink.class);
-
-            // Skip if don't need to include in collection
-            if (!(hydraFieldAnnotation != null && hydraFieldAnnotation.includeInCollection() ||
-                    hydraLinkAnnotation != null && hydraLinkAnnotation.includeInCollection())) {
-                continue;
-            }
-
-            entityField.setAccessible(true);
+        // which marked by includeInCollection property by HydraField or HydraLink annotation
+        path.push(entityObject);
+        for (FieldDescriptor entityField : descriptor.getCollectionFields()) {
             String key = entityField.getName();
-            Object value;
-
-            try {
-                value = entityField.get(entityObject);
-            } catch (IllegalAccessException e) {
-                continue;
-            }
 
             // If we trying to serialize HydraLink -> call proprietary method
-            if (hydraLinkAnnotation == null) {
-                itemJsonObject.addProperty(key, value.toString());
+            if (!entityField.isLink()) {
+                out.name(key).value(entityField.getValueAsString(entityObject));
             }
             else {
-                itemJsonObject.add(key, serializeLinkTo(value));
+                out.name(key);
+                writeLinkTo(out, entityField.getValue(entityObject), entityField.limitEmbeddingDepth(depth - 1), path);
             }
 
         }
+        path.pop();
+
+        out.endObject();
+    }
+
 
+    /**
+     * <p>
+     * Entities being written, from the response root down to the current one.
+     * Path is as long as embedding depth, so it is searched linearly, by identity.
+     *
+     * <p>
+     * In compact mode it also remembers, by identity, IRIs of entities met in the response
+     * and how deep entities have been embedded. Up to {@link #MAX_REMEMBERED} entities are remembered,
+     * so memory taken by a streamed collection stays bounded.
+     */
+    private static final class EmbeddingPath {
 
-        return itemJsonObject;
+        private static final int MAX_REMEMBERED = 10_000;
+
+        private Object[] entities = new Object[8];
+
+        private int size;
+
+        /**
+         * Null if response isn't written in compact mode
+         */
+        private final Map<Object, WrittenEntity> written;
+
+
+        EmbeddingPath(boolean compact) {
+            this.written = compact ? new IdentityHashMap<>() : null;
+        }
+
+
+        boolean isCompact() {
+            return written != null;
+        }
+
+
+        void push(Object entity) {
+            if (size == entities.length) {
+                entities = Arrays.copyOf(entities, size * 2);
+            }
+            entities[size++] = entity;
+        }
+
+
+        void pop() {
+            entities[--size] = null;
+        }
+
+
+        boolean contains(Object entity) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (entities[i] == entity)
+                    return true;
+            }
+            return false;
+        }
+
+
+        /**
+         * @return IRI of the entity, resolved once per response in compact mode
+         */
+        String getIri(Object entity) {
+            WrittenEntity writtenEntity = remember(entity);
+            return writtenEntity != null ? writtenEntity.iri : HydraUrlResolver.getPathToEntity(entity);
+        }
+
+
+        /**
+         * @param depth how many levels of links would be embedded, including the entity itself
+         * @return true if entity has been embedded with at least as many levels
+         */
+        boolean isEmbedded(Object entity, int depth) {
+            if (written == null)
+                return false;
+
+            WrittenEntity writtenEntity = written.get(entity);
+            return writtenEntity != null && writtenEntity.depth >= depth;
+        }
+
+
+        void markEmbedded(Object entity, int depth) {
+            WrittenEntity writtenEntity = remember(entity);
+            if (writtenEntity != null && writtenEntity.depth < depth) {
+                writtenEntity.depth = depth;
+            }
+        }
+
+
+        /**
+         * @return remembered entity, null if response isn't compact or too many entities are remembered already
+         */
+        private WrittenEntity remember(Object entity) {
+            if (written == null)
+                return null;
+
+            WrittenEntity writtenEntity = written.get(entity);
+            if (writtenEntity == null && written.size() < MAX_REMEMBERED) {
+                writtenEntity = new WrittenEntity(HydraUrlResolver.getPathToEntity(entity));
+                written.put(entity, writtenEntity);
+            }
+            return writtenEntity;
+        }
     }
 
+
+    private static final class WrittenEntity {
+
+        private final String iri;
+
+        /**
+         * Levels of links embedded with the entity, including itself. 0 if it has been written as reference only
+         */
+        private int depth;
+
+
+        WrittenEntity(String iri) {
+            this.iri = iri;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.serializer.HydraEntitySerializer;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * <p>
+ * Gson {@link JsonWriter} used for JSON-LD output.
+ *
+ * <p>
+ * Besides usual writing it can inline an object written by Gson's type adapter
+ * into the currently opened object: the adapter's outermost braces are skipped,
+ * so plain fields go straight to the output and JSON-LD keywords can be appended after them.
+ *
+ * <p>
+ * Writer is lenient and doesn't escape html characters,
+ * the same way as {@link com.google.gson.JsonElement#toString()} does.
+ */
+class JsonLdJsonWriter extends JsonWriter {
+
+    /**
+     * Depth of objects opened by inlined adapter, -1 if nothing is being inlined
+     */
+    private int inlineDepth = -1;
+
+
+    JsonLdJsonWriter(Writer out) {
+        super(out);
+        setLenient(true);
+    }
+
+
+    /**
+     * Writes all properties of the object into the currently opened object.
+     * Null properties are skipped, as Gson does by default.
+     *
+     * @param adapter Gson's adapter, which writes the object
+     * @param value   object to write
+     */
+    @SuppressWarnings("unchecked")
+    void inlineObject(TypeAdapter adapter, Object value) throws IOException {
+        inlineDepth = 0;
+        setSerializeNulls(false);
+
+        try {
+            adapter.write(this, value);
+        } finally {
+            inlineDepth = -1;
+            setSerializeNulls(true);
+        }
+    }
+
+
+    /**
+     * Writes plain fields of entity into the currently opened object by the generated serializer.
+     * Null properties are skipped, the same way as in {@link #inlineObject}.
+     *
+     * @param serializer serializer generated for the entity class
+     * @param gson       Gson instance for values serializer delegates
+     * @param entity     entity to write
+     */
+    @SuppressWarnings("unchecked")
+    void inlineFields(HydraEntitySerializer serializer, Gson gson, Object entity) throws IOException {
+        setSerializeNulls(false);
+
+        try {
+            serializer.writeFields(entity, this, gson);
+        } finally {
+            setSerializeNulls(true);
+        }
+    }
+
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        if (inlineDepth >= 0 && inlineDepth++ == 0) {
+            return this;
+        }
+        return super.beginObject();
+    }
+
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        if (inlineDepth >= 0 && --inlineDepth == 0) {
+            return this;
+        }
+        return super.endObject();
+    }
+}
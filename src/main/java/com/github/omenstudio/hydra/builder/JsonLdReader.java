@@ -0,0 +1,689 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.annotation.model.HydraLink;
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.github.omenstudio.hydra.metadata.FieldDescriptor;
+import com.github.omenstudio.hydra.response.HydraGraph;
+import com.github.omenstudio.hydra.utils.AnnotationJsonExclusionStrategy;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * <p>
+ * Reads JSON-LD documents into {@link com.github.omenstudio.hydra.annotation.model.HydraEntity} objects,
+ * the inverse of {@link JsonLdBuilder}.
+ *
+ * <p>
+ * Document is read by streaming parser, no tree is built. Plain fields are read by Gson
+ * exactly as Gson would read them. {@code @context}, {@code @type} and unknown properties are skipped.
+ * {@code @id} is matched against entity path template and gives values to the id field
+ * and other template variables, unless document contains these fields explicitly.
+ *
+ * <p>
+ * {@link HydraLink} fields may be IRI strings, objects with {@code @id}, whose other properties are read as well,
+ * or arrays of them. Linked entities are created with fields taken from their IRIs, so link to
+ * "/api/authors/7" becomes author with id 7.
+ *
+ * <p>
+ * Besides a single entity, {@code List}, {@code Set}, {@code Collection}, {@link HydraGraph},
+ * {@code Iterator} and {@code Stream} of entities can be read. They are read from array,
+ * or from {@code "@graph"} or {@code "members"} array of an object, so documents written by the framework
+ * can be sent back. {@code Iterator} and {@code Stream} read entities one by one, while they are consumed,
+ * so bulk import takes constant memory.
+ *
+ * @see com.github.omenstudio.hydra.converter.JsonLdHttpMessageConverter
+ */
+public class JsonLdReader {
+
+    private static final ExclusionStrategy EXCLUSION_STRATEGY = new AnnotationJsonExclusionStrategy();
+
+    private static final Gson GSON = new GsonBuilder()
+            .setExclusionStrategies(EXCLUSION_STRATEGY)
+            .create();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<ReadPlan> PLANS = new ClassValue<ReadPlan>() {
+        @Override
+        protected ReadPlan computeValue(Class<?> type) {
+            return new ReadPlan(type);
+        }
+    };
+
+
+    /**
+     * @param type declared type of the value to read
+     * @return true if type is entity class, or supported container of entities
+     */
+    public static boolean canRead(Type type) {
+        Class<?> entityClass = getEntityClass(type);
+        return entityClass != null && EntityDescriptorRegistry.get(entityClass).isEntity();
+    }
+
+
+    /**
+     * Reads value of the given type
+     *
+     * @param type   entity class or container of entities
+     * @param reader source of the document. Isn't closed, unless value is {@code Stream},
+     *               which closes it on close
+     * @return entity or container of entities, null if document is JSON null
+     * @throws JsonSyntaxException if document is malformed, truncated, has anything after the value
+     *                             or doesn't describe the value.
+     *                             {@code Iterator} and {@code Stream} throw it while they are consumed
+     * @see #canRead(Type)
+     */
+    public Object read(Type type, Reader reader) throws IOException {
+        Class<?> entityClass = getEntityClass(type);
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Can't read " + type);
+        }
+
+        JsonReader in = new JsonReader(reader);
+        if (type instanceof Class) {
+            try {
+                Object entity = readEntity(in, entityClass);
+                readEndOfDocument(in);
+                return entity;
+            } catch (EOFException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        Class<?> containerClass = (Class<?>) ((ParameterizedType) type).getRawType();
+        MemberIterator members = new MemberIterator(in, entityClass);
+
+        if (containerClass == Iterator.class) {
+            return members;
+        }
+        if (containerClass == Stream.class) {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(members, Spliterator.ORDERED), false)
+                    .onClose(members::close);
+        }
+
+        Collection<Object> result = containerClass == Set.class ? new LinkedHashSet<>() : new ArrayList<>();
+        try {
+            members.forEachRemaining(result::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return containerClass == HydraGraph.class ? HydraGraph.of(result) : result;
+    }
+
+
+    /**
+     * @return entity class of the type itself or of its elements, null if type isn't supported
+     */
+    private static Class<?> getEntityClass(Type type) {
+        if (type instanceof Class) {
+            Class<?> typeClass = (Class<?>) type;
+            return typeClass.isArray() || typeClass.isPrimitive() ? null : typeClass;
+        }
+
+        if (!(type instanceof ParameterizedType))
+            return null;
+
+        Type rawType = ((ParameterizedType) type).getRawType();
+        if (rawType != List.class && rawType != Collection.class && rawType != Set.class &&
+                rawType != Iterator.class && rawType != Stream.class && rawType != HydraGraph.class) {
+            return null;
+        }
+
+        return getElementClass(type);
+    }
+
+
+    /**
+     * @return class of type argument, null if it isn't a class
+     */
+    private static Class<?> getElementClass(Type type) {
+        if (!(type instanceof ParameterizedType))
+            return null;
+
+        Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+        if (argument instanceof WildcardType) {
+            argument = ((WildcardType) argument).getUpperBounds()[0];
+        }
+
+        return argument instanceof Class ? (Class<?>) argument : null;
+    }
+
+
+    /**
+     * Makes sure nothing follows the value
+     */
+    private static void readEndOfDocument(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("Expected end of document, but was " + in.peek() + " at " + in.getPath());
+        }
+    }
+
+
+    /**
+     * Reads entity object or IRI string
+     */
+    private static Object readEntity(JsonReader in, Class<?> type) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return null;
+            case STRING:
+                return readReference(in.nextString(), type);
+            case BEGIN_OBJECT:
+                return readObject(in, type);
+            default:
+                throw new JsonSyntaxException("Expected " + type.getSimpleName() + " object or IRI, but was "
+                        + in.peek() + " at " + in.getPath());
+        }
+    }
+
+
+    private static Object readReference(String iri, Class<?> type) {
+        ReadPlan plan = PLANS.get(type);
+        Object entity = plan.newInstance();
+        plan.applyIri(entity, iri, null);
+        return entity;
+    }
+
+
+    private static Object readObject(JsonReader in, Class<?> type) throws IOException {
+        ReadPlan plan = PLANS.get(type);
+        Object entity = plan.newInstance();
+        boolean[] assigned = new boolean[plan.size()];
+        String iri = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+
+            if (name.equals("@id") && in.peek() == JsonToken.STRING) {
+                iri = in.nextString();
+                continue;
+            }
+
+            Binding binding = plan.get(name);
+            if (binding == null) {
+                in.skipValue();
+                continue;
+            }
+
+            binding.read(in, entity);
+            assigned[binding.index] = true;
+        }
+        in.endObject();
+
+        if (iri != null) {
+            plan.applyIri(entity, iri, assigned);
+        }
+
+        return entity;
+    }
+
+
+    /**
+     * Reads members of array, or of "@graph" or "members" array of an object, one by one
+     */
+    private static final class MemberIterator implements Iterator<Object> {
+
+        private final JsonReader in;
+
+        private final Class<?> entityClass;
+
+        private boolean started;
+
+        private boolean finished;
+
+        /**
+         * Members are array of an object, not the document itself
+         */
+        private boolean enclosed;
+
+
+        MemberIterator(JsonReader in, Class<?> entityClass) {
+            this.in = in;
+            this.entityClass = entityClass;
+        }
+
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (!started) {
+                    started = true;
+                    finished = !moveToMembers();
+                }
+
+                if (!finished && !in.hasNext()) {
+                    finished = true;
+                    in.endArray();
+                    finishDocument();
+                }
+                return !finished;
+            } catch (EOFException e) {
+                throw new JsonSyntaxException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        @Override
+        public Object next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            try {
+                return readEntity(in, entityClass);
+            } catch (EOFException e) {
+                throw new JsonSyntaxException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        /**
+         * @return false if there are no members at all
+         */
+        private boolean moveToMembers() throws IOException {
+            JsonToken token = in.peek();
+
+            if (token == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                return true;
+            }
+
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                readEndOfDocument(in);
+                return false;
+            }
+
+            in.beginObject();
+            enclosed = true;
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ((name.equals("@graph") || name.equals("members")) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    return true;
+                }
+                in.skipValue();
+            }
+            finishDocument();
+            return false;
+        }
+
+
+        /**
+         * Skips the rest of enclosing object, if any, and makes sure the document ends there
+         */
+        private void finishDocument() throws IOException {
+            if (enclosed) {
+                while (in.hasNext()) {
+                    in.nextName();
+                    in.skipValue();
+                }
+                in.endObject();
+            }
+            readEndOfDocument(in);
+        }
+
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+
+    /**
+     * How to read a class: its fields by JSON names and fields of its IRI template variables.
+     * Built once per class.
+     */
+    private static final class ReadPlan {
+
+        private final Class<?> type;
+
+        private final Supplier<Object> constructor;
+
+        private final Map<String, Binding> bindings = new HashMap<>();
+
+        /**
+         * Bindings of IRI template variables by variable names
+         */
+        private final Map<String, Binding> variableBindings = new HashMap<>();
+
+        private int size;
+
+
+        ReadPlan(Class<?> type) {
+            this.type = type;
+            this.constructor = createConstructor(type);
+
+            // Subclass fields hide superclass ones, like in Gson
+            Map<Field, Binding> byField = new HashMap<>();
+            for (Class<?> declaringClass = type; declaringClass != null && declaringClass != Object.class;
+                 declaringClass = declaringClass.getSuperclass()) {
+                for (Field field : declaringClass.getDeclaredFields()) {
+                    Binding binding = createBinding(field);
+                    if (binding == null)
+                        continue;
+
+                    for (String name : getJsonNames(field)) {
+                        bindings.putIfAbsent(name, binding);
+                    }
+                    byField.put(field, binding);
+                }
+            }
+
+            EntityDescriptor descriptor = EntityDescriptorRegistry.get(type);
+            for (Map.Entry<String, FieldDescriptor> variable : descriptor.getEntityTemplate().getVariables().entrySet()) {
+                Field field = variable.getValue().getField();
+                Binding binding = byField.get(field);
+                if (binding == null && !Modifier.isStatic(field.getModifiers())) {
+                    binding = new PlainBinding(size++, field);
+                }
+                if (binding != null) {
+                    variableBindings.put(variable.getKey(), binding);
+                }
+            }
+        }
+
+
+        private Binding createBinding(Field field) {
+            if (field.isAnnotationPresent(HydraLink.class)) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()))
+                    return null;
+
+                LinkBinding link = LinkBinding.create(size, field);
+                if (link != null)
+                    size++;
+                return link;
+            }
+
+            if (isExcluded(field))
+                return null;
+
+            return new PlainBinding(size++, field);
+        }
+
+
+        /**
+         * Same fields as Gson skips by default, and ones excluded by annotations
+         */
+        private static boolean isExcluded(Field field) {
+            int modifiers = field.getModifiers();
+            return Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                    || EXCLUSION_STRATEGY.shouldSkipClass(field.getType())
+                    || EXCLUSION_STRATEGY.shouldSkipField(new FieldAttributes(field));
+        }
+
+
+        /**
+         * Uses constructor without arguments. If class has no such constructor,
+         * Gson creates the instance, as it does when it reads an empty object.
+         */
+        private static Supplier<Object> createConstructor(Class<?> type) {
+            if (!Modifier.isAbstract(type.getModifiers())) {
+                try {
+                    Constructor<?> constructor = type.getDeclaredConstructor();
+                    constructor.setAccessible(true);
+                    return () -> {
+                        try {
+                            return constructor.newInstance();
+                        } catch (InvocationTargetException e) {
+                            throw new RuntimeException("Failed to invoke " + constructor, e.getCause());
+                        } catch (ReflectiveOperationException e) {
+                            throw new RuntimeException("Failed to invoke " + constructor, e);
+                        }
+                    };
+                } catch (NoSuchMethodException e) {
+                    // created by Gson below
+                }
+            }
+
+            TypeAdapter<?> adapter = GSON.getAdapter(type);
+            return () -> adapter.fromJsonTree(new JsonObject());
+        }
+
+
+        private static List<String> getJsonNames(Field field) {
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            if (serializedName == null)
+                return Collections.singletonList(field.getName());
+
+            List<String> names = new ArrayList<>();
+            names.add(serializedName.value());
+            Collections.addAll(names, serializedName.alternate());
+            return names;
+        }
+
+
+        Object newInstance() {
+            return constructor.get();
+        }
+
+
+        Binding get(String name) {
+            return bindings.get(name);
+        }
+
+
+        int size() {
+            return size;
+        }
+
+
+        /**
+         * Sets fields of template variables, which haven't been assigned by document, from IRI.
+         * IRI of another class is ignored.
+         *
+         * @param assigned flags of bindings assigned by document, null if there are no such
+         */
+        void applyIri(Object entity, String iri, boolean[] assigned) {
+            Map<String, String> values = HydraUrlResolver.getVariablesFromIri(type, iri);
+            if (values == null)
+                return;
+
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                Binding binding = variableBindings.get(value.getKey());
+                if (binding instanceof PlainBinding && (assigned == null || !assigned[binding.index])) {
+                    ((PlainBinding) binding).setFromString(entity, value.getValue());
+                }
+            }
+        }
+    }
+
+
+    private abstract static class Binding {
+
+        final int index;
+
+        private final MethodHandle setter;
+
+
+        Binding(int index, Field field) {
+            this.index = index;
+
+            field.setAccessible(true);
+            try {
+                this.setter = LOOKUP.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Can't set " + field, e);
+            }
+        }
+
+
+        abstract void read(JsonReader in, Object entity) throws IOException;
+
+
+        void set(Object entity, Object value) {
+            try {
+                setter.invokeExact(entity, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+
+    /**
+     * Field read by Gson
+     */
+    private static final class PlainBinding extends Binding {
+
+        private final Class<?> fieldType;
+
+        private final TypeAdapter<?> adapter;
+
+
+        PlainBinding(int index, Field field) {
+            super(index, field);
+            this.fieldType = field.getType();
+            this.adapter = GSON.getAdapter(TypeToken.get(field.getGenericType()));
+        }
+
+
+        @Override
+        void read(JsonReader in, Object entity) throws IOException {
+            Object value = adapter.read(in);
+
+            // Like Gson, null doesn't reset primitive field
+            if (value != null || !fieldType.isPrimitive()) {
+                set(entity, value);
+            }
+        }
+
+
+        void setFromString(Object entity, String value) {
+            try {
+                set(entity, DefaultConversionService.getSharedInstance().convert(value, fieldType));
+            } catch (ConversionException e) {
+                throw new JsonSyntaxException("Can't convert IRI variable '" + value + "' to " + fieldType.getSimpleName(), e);
+            }
+        }
+    }
+
+
+    /**
+     * {@link HydraLink} field: single entity or collection of entities
+     */
+    private static final class LinkBinding extends Binding {
+
+        private final Class<?> targetClass;
+
+        /**
+         * Null if field holds a single entity
+         */
+        private final Class<?> collectionClass;
+
+
+        private LinkBinding(int index, Field field, Class<?> targetClass, Class<?> collectionClass) {
+            super(index, field);
+            this.targetClass = targetClass;
+            this.collectionClass = collectionClass;
+        }
+
+
+        /**
+         * @return null if field type can't be read
+         */
+        static LinkBinding create(int index, Field field) {
+            Class<?> fieldType = field.getType();
+
+            if (!Collection.class.isAssignableFrom(fieldType)) {
+                return fieldType.isPrimitive() || fieldType.isArray() ? null : new LinkBinding(index, field, fieldType, null);
+            }
+
+            Class<?> targetClass = getElementClass(field.getGenericType());
+            if (targetClass == null)
+                return null;
+
+            Class<?> collectionClass = fieldType.isAssignableFrom(ArrayList.class) ? ArrayList.class
+                    : fieldType.isAssignableFrom(LinkedHashSet.class) ? LinkedHashSet.class
+                    : null;
+            return collectionClass != null ? new LinkBinding(index, field, targetClass, collectionClass) : null;
+        }
+
+
+        @Override
+        void read(JsonReader in, Object entity) throws IOException {
+            if (collectionClass == null) {
+                if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                    throw new JsonSyntaxException("Expected single link, but was array at " + in.getPath());
+                }
+                set(entity, readEntity(in, targetClass));
+                return;
+            }
+
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                set(entity, null);
+                return;
+            }
+
+            Collection<Object> links = collectionClass == ArrayList.class ? new ArrayList<>() : new LinkedHashSet<>();
+            if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    links.add(readEntity(in, targetClass));
+                }
+                in.endArray();
+            } else {
+                links.add(readEntity(in, targetClass));
+            }
+            set(entity, links);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.omenstudio.hydra.builder;
+
+import java.io.IOException;
+
+
+/**
+ * <p>
+ * Streaming JSON output used by {@link JsonLdBuilder}. Backend SPI: implementations decide
+ * which JSON library produces the bytes.
+ *
+ * <p>
+ * Besides usual tokens, writer is responsible for plain entity fields, see {@link #writeFields(Object)},
+ * because their representation is defined by the JSON library.
+ *
+ * @see JsonLdWriterFactory
+ */
+public interface JsonLdWriter {
+
+    JsonLdWriter beginObject() throws IOException;
+
+    JsonLdWriter endObject() throws IOException;
+
+    JsonLdWriter beginArray() throws IOException;
+
+    JsonLdWriter endArray() throws IOException;
+
+    JsonLdWriter name(String name) throws IOException;
+
+    /**
+     * @param value string value, null is written as JSON null
+     */
+    JsonLdWriter value(String value) throws IOException;
+
+    JsonLdWriter value(long value) throws IOException;
+
+    JsonLdWriter nullValue() throws IOException;
+
+
+    /**
+     * Writes plain fields of entity into the currently opened object. Plain fields are all fields
+     * except for {@link com.github.omenstudio.hydra.annotation.model.HydraLink} ones, fields marked by
+     * {@link com.github.omenstudio.hydra.annotation.JsonExclude}, static and transient ones.
+     * Null fields are skipped.
+     *
+     * @param entity entity to write
+     */
+    void writeFields(Object entity) throws IOException;
+
+
+    /**
+     * Writes already serialized JSON as the next value, as is. Several comma separated values may be passed at once,
+     * they are written as if they were a single one. Used to put together collection members,
+     * which have been serialized by other writers of the same backend in parallel.
+     *
+     * @param json serialized value or values
+     * @throws UnsupportedOperationException if writer doesn't support it, see {@link #canWriteJsonValue()}
+     * @see ParallelMemberWriter
+     */
+    default JsonLdWriter jsonValue(String json) throws IOException {
+        throw new UnsupportedOperationException("Serialized JSON can't be written by " + getClass().getName());
+    }
+
+
+    /**
+     * @return true if {@link #jsonValue(String)} is supported and values written by another writer
+     * of the same backend look the same as if they were written by this one, e.g. aren't indented
+     */
+    default boolean canWriteJsonValue() {
+        return false;
+    }
+
+
+    /**
+     * Pushes buffered output to the destination. Destination itself isn't flushed or closed
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,28 @@
+package com.github.omenstudio.hydra.builder;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * <p>
+ * Creates {@link JsonLdWriter}s, one for each response. Default backend is
+ * {@link GsonJsonLdWriterFactory}.
+ *
+ * <p>
+ * To choose another backend declare a bean of this type, {@link ResponseBuilder} picks it up.
+ * For example, Jackson backend from hydra-jackson module:
+ * <pre>
+ * &#64;Bean
+ * public JsonLdWriterFactory jsonLdWriterFactory(ObjectMapper objectMapper) {
+ *     return new JacksonJsonLdWriterFactory(objectMapper);
+ * }
+ * </pre>
+ */
+public interface JsonLdWriterFactory {
+
+    /**
+     * @param writer destination, isn't flushed or closed by the created writer
+     */
+    JsonLdWriter create(Writer writer) throws IOException;
+}
@@ -0,0 +1,282 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * <p>
+ * Serializes members of a big in-memory collection on several threads.
+ *
+ * <p>
+ * Members are split into chunks. Each chunk is serialized by its own {@link JsonLdWriter} into a string,
+ * and chunks are written to the response writer strictly in order by {@link JsonLdWriter#jsonValue(String)},
+ * so output is the same as if members were written one after another.
+ *
+ * <p>
+ * Request thread serializes chunks too, helpers of the shared pool only speed it up. Helpers, which
+ * can't be started because the pool is busy, are dropped, so a saturated pool never blocks requests.
+ * Helpers run at most {@link #WINDOW_PER_THREAD} chunks per thread ahead of the written ones,
+ * so memory taken by serialized chunks stays bounded.
+ *
+ * @see HydraSettings#getParallelSerializationThreshold()
+ * @see HydraSettings#getParallelSerializationThreads()
+ */
+final class ParallelMemberWriter {
+
+    /**
+     * Smaller chunks cost more to put together than they save
+     */
+    private static final int MIN_CHUNK_SIZE = 128;
+
+    /**
+     * Collection is split into this many chunks per thread, so threads finish at about the same time
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int WINDOW_PER_THREAD = 2;
+
+    private static volatile ExecutorService executor;
+
+
+    /**
+     * Writes members of a chunk into the writer of the chunk
+     */
+    interface ChunkWriter {
+        void write(JsonLdWriter out, List<?> members) throws IOException;
+    }
+
+
+    private ParallelMemberWriter() {
+    }
+
+
+    /**
+     * @param size number of collection members
+     * @return true if collection of such size is worth serializing in parallel
+     */
+    static boolean isEnabled(int size) {
+        int threshold = HydraSettings.getParallelSerializationThreshold();
+        return threshold > 0 && size >= threshold && size >= 2 * MIN_CHUNK_SIZE &&
+                HydraSettings.getParallelSerializationThreads() > 1;
+    }
+
+
+    /**
+     * Writes members into the currently opened array
+     *
+     * @param out           writer of the response, must support {@link JsonLdWriter#jsonValue(String)}
+     * @param members       members in order they must be written
+     * @param writerFactory creates writers for chunks, the same backend as of the response writer
+     * @param chunkWriter   writes members of a chunk
+     */
+    static void writeMembers(JsonLdWriter out, List<?> members, JsonLdWriterFactory writerFactory,
+                             ChunkWriter chunkWriter) throws IOException {
+        int threads = HydraSettings.getParallelSerializationThreads();
+        int chunks = threads * CHUNKS_PER_THREAD;
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (members.size() + chunks - 1) / chunks);
+
+        Job job = new Job(members, chunkSize, threads * WINDOW_PER_THREAD, writerFactory, chunkWriter);
+
+        ExecutorService helpers = getExecutor();
+        for (int i = 1; i < threads && i < job.chunkCount; i++) {
+            helpers.execute(job::help);
+        }
+
+        try {
+            for (int chunk = 0; chunk < job.chunkCount; chunk++) {
+                out.jsonValue(job.take(chunk));
+            }
+        } finally {
+            job.cancel();
+        }
+    }
+
+
+    private static ExecutorService getExecutor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (ParallelMemberWriter.class) {
+                current = executor;
+                if (current == null) {
+                    executor = current = createExecutor(HydraSettings.getParallelSerializationThreads());
+                }
+            }
+        }
+        return current;
+    }
+
+
+    /**
+     * Pool of daemon threads, which drops helpers it can't run soon
+     */
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hydra-parallel-serialization-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
+
+
+    /**
+     * Serialization of a single collection. Chunks are claimed in order by the request thread and helpers
+     */
+    private static final class Job {
+
+        private final List<?> members;
+
+        private final int chunkSize;
+
+        private final int chunkCount;
+
+        private final int window;
+
+        private final JsonLdWriterFactory writerFactory;
+
+        private final ChunkWriter chunkWriter;
+
+        /**
+         * Serialized chunk or exception thrown while serializing it. Guarded by this
+         */
+        private final Object[] results;
+
+        /**
+         * Next chunk to claim. Guarded by this
+         */
+        private int next;
+
+        /**
+         * Chunks taken by the request thread. Guarded by this
+         */
+        private int taken;
+
+        private boolean cancelled;
+
+
+        Job(List<?> members, int chunkSize, int window, JsonLdWriterFactory writerFactory, ChunkWriter chunkWriter) {
+            this.members = members;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (members.size() + chunkSize - 1) / chunkSize;
+            this.window = window;
+            this.writerFactory = writerFactory;
+            this.chunkWriter = chunkWriter;
+            this.results = new Object[chunkCount];
+        }
+
+
+        /**
+         * Helper: serializes chunks until they run out or the job is cancelled
+         */
+        void help() {
+            while (true) {
+                int chunk;
+                synchronized (this) {
+                    while (!cancelled && next < chunkCount && next >= taken + window) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    if (cancelled || next >= chunkCount)
+                        return;
+
+                    chunk = next++;
+                }
+
+                complete(chunk, serialize(chunk));
+            }
+        }
+
+
+        /**
+         * Request thread: returns serialized chunk, serializes it itself if nobody has claimed it yet
+         */
+        @SneakyThrows
+        String take(int chunk) throws IOException {
+            while (true) {
+                synchronized (this) {
+                    Object result = results[chunk];
+                    if (result != null) {
+                        results[chunk] = null;
+                        taken = chunk + 1;
+                        notifyAll();
+
+                        if (result instanceof Throwable)
+                            throw (Throwable) result;
+                        return (String) result;
+                    }
+
+                    if (next > chunk) {
+                        // Helper is serializing the chunk right now
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException("Interrupted while collection was serialized in parallel");
+                        }
+                        continue;
+                    }
+
+                    next = chunk + 1;
+                }
+
+                complete(chunk, serialize(chunk));
+            }
+        }
+
+
+        synchronized void cancel() {
+            cancelled = true;
+            notifyAll();
+        }
+
+
+        private synchronized void complete(int chunk, Object result) {
+            results[chunk] = result;
+            notifyAll();
+        }
+
+
+        /**
+         * @return members of the chunk serialized without enclosing brackets, or thrown exception
+         */
+        private Object serialize(int chunk) {
+            try {
+                List<?> chunkMembers = members.subList(chunk * chunkSize, Math.min(members.size(), (chunk + 1) * chunkSize));
+
+                StringWriter buffer = new StringWriter(chunkMembers.size() * 256);
+                JsonLdWriter out = writerFactory.create(buffer);
+                out.beginArray();
+                chunkWriter.write(out, chunkMembers);
+                out.endArray();
+                out.flush();
+
+                StringBuffer json = buffer.getBuffer();
+                return json.substring(1, json.length() - 1);
+            } catch (Throwable e) {
+                return e;
+            }
+        }
+    }
+}
@@ -1,44 +1,611 @@
 package com.github.omenstudio.hydra.builder;
 
 
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import com.github.omenstudio.hydra.cache.ContentCoding;
+import com.github.omenstudio.hydra.cache.ETags;
+import com.github.omenstudio.hydra.cache.ResponseCache;
+import com.github.omenstudio.hydra.cache.StaticDocument;
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.github.omenstudio.hydra.metadata.FieldDescriptor;
+import com.github.omenstudio.hydra.metrics.HydraMetrics;
+import com.github.omenstudio.hydra.metrics.HydraMetricsListener;
+import com.github.omenstudio.hydra.utils.HydraSettings;
 import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
 
 
 
 @Component
 public class ResponseBuilder {
 
+    private static final MediaType JSON_LD_UTF8 = MediaType.valueOf("application/ld+json;charset=UTF-8");
+
+    private static final String CACHE_INVALIDATED_ATTRIBUTE = ResponseBuilder.class.getName() + ".CACHE_INVALIDATED";
+
+    private static final String CACHE_GENERATION_ATTRIBUTE = ResponseBuilder.class.getName() + ".CACHE_GENERATION";
+
+    private static final OutputStream DISCARDING_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
     private JsonLdBuilder jsonLdBuilder;
 
+    /**
+     * True if {@link com.github.omenstudio.hydra.converter.JsonLdHttpMessageConverter} is registered,
+     * so responses can be written by it. Otherwise bodies are built as strings
+     */
+    private volatile boolean directOutput;
+
+    /**
+     * Serialized entities of {@link com.github.omenstudio.hydra.annotation.request.HydraCacheable} endpoints
+     */
+    @Getter
+    private final ResponseCache responseCache = new ResponseCache();
+
     public ResponseBuilder() {
         jsonLdBuilder = new JsonLdBuilder();
     }
 
 
+    /**
+     * Replaces default Gson backend by JSON library of the application, if it declares factory bean
+     *
+     * @see JsonLdWriterFactory
+     */
+    @Autowired(required = false)
+    public void setJsonLdWriterFactory(JsonLdWriterFactory writerFactory) {
+        jsonLdBuilder = new JsonLdBuilder(writerFactory);
+    }
+
+
+    /**
+     * Enables responses with {@link JsonLdBody}, which is encoded straight into the response output stream
+     *
+     * @see com.github.omenstudio.hydra.config.HydraWebMvcConfigurer
+     */
+    public void setDirectOutput(boolean directOutput) {
+        this.directOutput = directOutput;
+    }
+
+
     public Object buildResponse(Object objectToReturn) {
-        Object response = jsonLdBuilder.buildResponse(objectToReturn);
+        return buildResponse(objectToReturn, CachePolicy.NO_CACHE);
+    }
+
+
+    /**
+     * <p>
+     * Builds response with the given caching policy.
+     *
+     * <p>
+     * If policy is conditional, response gets ETag and If-None-Match request header is checked.
+     * ETag is taken from entity {@link com.github.omenstudio.hydra.annotation.model.HydraVersion} field
+     * before serialization, so "304 Not Modified" is returned without building the body.
+     * Entities embedded through links must have version fields too, otherwise ETag is calculated from the body.
+     * Elsewhere ETag is calculated from the serialized body, but only if request has If-None-Match
+     * or policy asks for content ETag, otherwise response goes without ETag.
+     *
+     * <p>
+     * If direct output is enabled, JSON-LD body is returned as {@link JsonLdBody} and is serialized only
+     * when it is written to the client. Body is encoded in advance only to calculate content ETag.
+     *
+     * <p>
+     * If policy has response cache ttl, entity is served from {@link ResponseCache}
+     * and is serialized only if it isn't cached yet.
+     *
+     * @param objectToReturn object returned by Web MVC controller
+     * @param cachePolicy    caching policy of the endpoint
+     */
+    public Object buildResponse(Object objectToReturn, CachePolicy cachePolicy) {
+        if (objectToReturn instanceof StaticDocument) {
+            return buildResponse(((StaticDocument) objectToReturn), cachePolicy);
+        }
+
+        if (isStreamed(objectToReturn)) {
+            StreamingResponseBody streamingBody = buildStreamingResponse(objectToReturn, cachePolicy);
+            if (streamingBody != null) {
+                return streamingBody;
+            }
+        }
+
+        String etag = cachePolicy.isConditional() ? buildVersionETag(objectToReturn) : null;
+        if (etag != null && ETags.matches(getRequestHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return buildNotModifiedResponse(etag, cachePolicy);
+        }
+
+        if (cachePolicy.getResponseCacheTtl() > 0) {
+            ResponseCache.Key key = ResponseCache.Key.of(objectToReturn);
+            if (key != null) {
+                return buildCachedResponse(objectToReturn, key, cachePolicy, etag);
+            }
+        }
+
+        if (directOutput && jsonLdBuilder.canWrite(objectToReturn)) {
+            return buildDirectResponse(objectToReturn, cachePolicy, etag);
+        }
+
+        HydraMetricsListener metricsListener = HydraMetrics.getListener();
+        long startTime = metricsListener != null ? System.nanoTime() : 0;
+
+        String response = jsonLdBuilder.buildResponse(objectToReturn);
+
+        if (metricsListener != null && response != null) {
+            ResponseMetrics.recordSerialization(metricsListener, objectToReturn, response, System.nanoTime() - startTime);
+        }
 
         if (response == null) {
             return ResponseEntity.notFound()
-                    .header("Access-Control-Allow-Credentials", "true")
-                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE")
-                    .header("Access-Control-Allow-Origin", "*")
-                    .header("Cache-Control", "no-cache")
-                    .header("Access-Control-Expose-Headers", "Link")
-                    .header("Link", "<" + HydraUrlResolver.getServerAddress() + HydraUrlResolver.getVocabAddress() + ">; " +
-                            "rel=\"http://www.w3.org/ns/hydra/core#apiDocumentation\"");
+                    .headers(buildHeaders(CachePolicy.NO_CACHE));
+        }
+
+        HttpHeaders headers = buildHeaders(cachePolicy);
+
+        if (etag == null && isContentETagNeeded(cachePolicy)) {
+            etag = ETags.forContent(response);
+            if (ETags.matches(getRequestHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                return buildNotModifiedResponse(etag, cachePolicy);
+            }
+        }
+        if (etag != null) {
+            headers.setETag(etag);
         }
 
         return ResponseEntity.ok()
-                .header("Access-Control-Allow-Credentials", "true")
-                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE")
-                .header("Access-Control-Allow-Origin", "*")
-                .header("Cache-Control", "no-cache")
-                .header("Access-Control-Expose-Headers", "Link")
-                .header("Link", "<" + HydraUrlResolver.getServerAddress() + HydraUrlResolver.getVocabAddress() + ">; " +
-                        "rel=\"http://www.w3.org/ns/hydra/core#apiDocumentation\"")
+                .headers(headers)
                 .body(response);
     }
+
+
+    private ResponseEntity<JsonLdBody> buildDirectResponse(Object objectToReturn, CachePolicy cachePolicy, String versionETag) {
+        JsonLdBody body = new JsonLdBody(objectToReturn, jsonLdBuilder);
+        HttpHeaders headers = buildHeaders(cachePolicy);
+
+        String etag = versionETag;
+        if (etag == null && isContentETagNeeded(cachePolicy)) {
+            body.encode(true);
+            etag = body.getContentETag();
+            if (ETags.matches(getRequestHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                body.release();
+                return buildNotModifiedResponse(etag, cachePolicy);
+            }
+        }
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+
+    /**
+     * Content ETag needs the whole body before it is sent,
+     * so it is calculated only for If-None-Match or if policy asks for it
+     */
+    private boolean isContentETagNeeded(CachePolicy cachePolicy) {
+        return cachePolicy.isConditional()
+                && (cachePolicy.isContentETag() || getRequestHeader(HttpHeaders.IF_NONE_MATCH) != null);
+    }
+
+
+    private ResponseEntity<byte[]> buildCachedResponse(Object entity, ResponseCache.Key key, CachePolicy cachePolicy,
+                                                       String versionETag) {
+        ResponseCache.CachedResponse cached = responseCache.get(key);
+        if (cached == null) {
+            cached = encodeToCache(entity, key, cachePolicy.getResponseCacheTtl());
+        }
+
+        HttpHeaders headers = buildHeaders(cachePolicy);
+
+        if (cachePolicy.isConditional()) {
+            String etag = versionETag != null ? versionETag : cached.getContentETag();
+            if (ETags.matches(getRequestHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                return buildNotModifiedResponse(etag, cachePolicy);
+            }
+            headers.setETag(etag);
+        }
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(JSON_LD_UTF8)
+                .contentLength(cached.getLength())
+                .body(cached.getContent());
+    }
+
+
+    @SneakyThrows
+    private ResponseCache.CachedResponse encodeToCache(Object entity, ResponseCache.Key key, long ttl) {
+        long generation = getCacheGeneration();
+
+        HydraMetricsListener metricsListener = HydraMetrics.getListener();
+        long startTime = metricsListener != null ? System.nanoTime() : 0;
+
+        Utf8BufferWriter writer = Utf8BufferWriter.buffered(true);
+        try {
+            jsonLdBuilder.writeResponse(entity, writer);
+            writer.finish();
+
+            byte[] content = writer.toByteArray();
+            if (metricsListener != null) {
+                ResponseMetrics.recordSerialization(metricsListener, entity, ResponseMetrics.getCurrentEndpoint(),
+                        content.length, System.nanoTime() - startTime);
+            }
+
+            return responseCache.put(key, content, writer.getContentETag(), ttl, generation);
+        } finally {
+            writer.release();
+        }
+    }
+
+
+    /**
+     * <p>
+     * Remembers generation of {@link ResponseCache} before the handler method reads the entity.
+     * Entity read before a concurrent write may be stale, so its response isn't cached
+     * if entries have been invalidated since then.
+     *
+     * <p>
+     * Called before {@code @HydraCacheable} methods. Only the first call of the request is taken into account,
+     * requests without the call use generation at the moment of serialization.
+     */
+    public void captureCacheGeneration() {
+        HttpServletRequest request = getCurrentRequest();
+        if (request != null && request.getAttribute(CACHE_GENERATION_ATTRIBUTE) == null) {
+            request.setAttribute(CACHE_GENERATION_ATTRIBUTE, responseCache.getGeneration());
+        }
+    }
+
+
+    private long getCacheGeneration() {
+        HttpServletRequest request = getCurrentRequest();
+        Object generation = request != null ? request.getAttribute(CACHE_GENERATION_ATTRIBUTE) : null;
+
+        return generation != null ? (Long) generation : responseCache.getGeneration();
+    }
+
+
+    /**
+     * <p>
+     * Drops cached responses of entities, which have been written by the current request.
+     * Called for values returned by {@code @HydraPostRequest}, {@code @HydraPutRequest}
+     * and {@code @HydraDeleteRequest} methods.
+     *
+     * <p>
+     * Path of the current request is taken into account, so DELETE of the entity IRI
+     * drops the entity even if the method returns nothing.
+     *
+     * @param writtenValue   value returned by write method, may be null
+     * @param writtenClasses entity classes the write method takes or returns
+     * @see ResponseCache#invalidate(Object, Collection, String)
+     */
+    public void invalidateCachedResponses(Object writtenValue, Collection<Class<?>> writtenClasses) {
+        HttpServletRequest request = getCurrentRequest();
+        if (request != null) {
+            request.setAttribute(CACHE_INVALIDATED_ATTRIBUTE, Boolean.TRUE);
+        }
+
+        responseCache.invalidate(writtenValue, writtenClasses, getRequestPath());
+    }
+
+
+    /**
+     * @return true if cached responses have been invalidated by the current request
+     */
+    public boolean isCacheInvalidated() {
+        HttpServletRequest request = getCurrentRequest();
+        return request != null && request.getAttribute(CACHE_INVALIDATED_ATTRIBUTE) != null;
+    }
+
+
+    /**
+     * Serializes the value into nowhere the same way response bodies are written,
+     * so serialization code is loaded and compiled before real requests come. Nothing is recorded to metrics
+     *
+     * @param value entity or collection
+     * @see com.github.omenstudio.hydra.config.HydraEntityInitializer
+     */
+    public void warmUp(Object value) throws IOException {
+        writeStreamingBody(value, DISCARDING_STREAM);
+    }
+
+
+    /**
+     * Builds response for document, which is served from cache as is
+     *
+     * @param document pre-encoded document
+     * @return response with raw bytes of the document
+     */
+    public ResponseEntity<byte[]> buildResponse(StaticDocument document) {
+        return buildResponse(document, CachePolicy.REVALIDATE);
+    }
+
+
+    /**
+     * Builds response for document, which is served from cache as is.
+     * Document hash is used as ETag. Pre-compressed variant is chosen by Accept-Encoding.
+     *
+     * @param document    pre-encoded document
+     * @param cachePolicy caching policy of the endpoint
+     * @return response with raw bytes of the document or "304 Not Modified"
+     */
+    public ResponseEntity<byte[]> buildResponse(StaticDocument document, CachePolicy cachePolicy) {
+        String etag = ETags.forDocument(document);
+
+        if (cachePolicy.isConditional() && ETags.matches(getRequestHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cachePolicy.getCacheControl())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(etag)
+                    .build();
+        }
+
+        ContentCoding coding = ContentCoding.negotiate(getRequestHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] content = document.getContent(coding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(JSON_LD_UTF8)
+                .contentLength(content.length)
+                .header(HttpHeaders.CACHE_CONTROL, cachePolicy.getCacheControl())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(etag);
+
+        if (content != document.getContent()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+        }
+
+        return response.body(content);
+    }
+
+
+    private static <T> ResponseEntity<T> buildNotModifiedResponse(String etag, CachePolicy cachePolicy) {
+        HttpHeaders headers = buildHeaders(cachePolicy);
+        headers.setETag(etag);
+
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .headers(headers)
+                .build();
+    }
+
+
+    /**
+     * <p>
+     * Builds ETag from the version of the entity and versions of entities, which are embedded into it through links.
+     *
+     * <p>
+     * Embedded entity changes the response without changing version of the root entity, so it must have
+     * a version too. Otherwise null is returned and ETag is calculated from the content.
+     * Entities written as bare references, and embedded entities without fields of their own, don't matter:
+     * which entities are linked is part of the root entity state.
+     *
+     * @return version ETag, null if the value isn't an entity or its version is unknown
+     */
+    private static String buildVersionETag(Object objectToReturn) {
+        if (objectToReturn == null)
+            return null;
+
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(objectToReturn);
+        if (!descriptor.isEntity() || descriptor.getVersionField() == null)
+            return null;
+
+        Object version = descriptor.getVersionField().getValue(objectToReturn);
+        if (version == null)
+            return null;
+
+        StringBuilder embeddedVersions = new StringBuilder();
+        for (FieldDescriptor linkField : descriptor.getLinkFields()) {
+            int depth = linkField.limitEmbeddingDepth(HydraSettings.getMaxEmbeddingDepth());
+            if (!appendEmbeddedVersions(linkField.getValue(objectToReturn), depth, embeddedVersions))
+                return null;
+        }
+
+        return embeddedVersions.length() == 0 ? ETags.forVersion(version) : ETags.forVersion(version, embeddedVersions);
+    }
+
+
+    /**
+     * Appends ids and versions of entities, which are embedded through the link, the same way they are serialized
+     *
+     * @param linked value of the link field: entity, Collection of entities or null
+     * @param depth  how many more levels of links may be embedded, including this one
+     * @return false if embedded entity has no version
+     */
+    private static boolean appendEmbeddedVersions(Object linked, int depth, StringBuilder versions) {
+        if (linked == null || depth <= 0)
+            return true;
+
+        if (linked instanceof Collection) {
+            for (Object member : (Collection<?>) linked) {
+                if (!appendEmbeddedVersions(member, depth, versions))
+                    return false;
+            }
+            return true;
+        }
+
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(linked);
+        if (descriptor.getCollectionFields().isEmpty())
+            return true;
+
+        Object version = descriptor.getVersionField() != null ? descriptor.getVersionField().getValue(linked) : null;
+        if (version == null)
+            return false;
+
+        if (descriptor.getIdField() != null) {
+            versions.append(descriptor.getIdField().getValueAsString(linked));
+        }
+        versions.append(':').append(ETags.toVersionToken(version)).append(',');
+
+        for (FieldDescriptor field : descriptor.getCollectionFields()) {
+            if (field.isLink() && !appendEmbeddedVersions(field.getValue(linked), field.limitEmbeddingDepth(depth - 1), versions))
+                return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * @return path of the current request, null if there is no request
+     */
+    private static String getRequestPath() {
+        HttpServletRequest request = getCurrentRequest();
+        return request != null ? request.getRequestURI() : null;
+    }
+
+
+    /**
+     * @return header of the current request, null if there is no such header or request
+     */
+    private static String getRequestHeader(String name) {
+        HttpServletRequest request = getCurrentRequest();
+        return request != null ? request.getHeader(name) : null;
+    }
+
+
+    /**
+     * Request is used directly: request-scoped {@link RequestAttributes} throw once async processing has started,
+     * while responses to asynchronous results are built after that
+     *
+     * @return current request, null if there is no one
+     */
+    private static HttpServletRequest getCurrentRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        return requestAttributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) requestAttributes).getRequest()
+                : null;
+    }
+
+
+    /**
+     * <p>
+     * Builds response body, which writes collection members to the response output stream
+     * one by one, so memory consumption doesn't depend on collection size.
+     *
+     * <p>
+     * Spring MVC chooses handler for {@link StreamingResponseBody} by the value type only,
+     * so headers are written to the servlet response directly.
+     * Stream is closed when writing finishes.
+     *
+     * @param collection Collection, Stream or Iterator of entities
+     * @return null if there is no current servlet response
+     */
+    private StreamingResponseBody buildStreamingResponse(Object collection, CachePolicy cachePolicy) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes))
+            return null;
+
+        HttpServletResponse servletResponse = ((ServletRequestAttributes) requestAttributes).getResponse();
+        if (servletResponse == null)
+            return null;
+
+        buildHeaders(cachePolicy).forEach((name, values) -> values.forEach(value -> servletResponse.addHeader(name, value)));
+        servletResponse.setContentType(JSON_LD_UTF8.toString());
+
+        // Request is not available on the thread, which writes the body
+        HydraMetricsListener metricsListener = HydraMetrics.getListener();
+        String endpoint = metricsListener != null ? ResponseMetrics.getCurrentEndpoint() : null;
+
+        return outputStream -> {
+            try {
+                if (metricsListener == null) {
+                    writeStreamingBody(collection, outputStream);
+                    return;
+                }
+
+                long startTime = System.nanoTime();
+                ResponseMetrics.CountingOutputStream countingStream = new ResponseMetrics.CountingOutputStream(outputStream);
+
+                // Collection is written as is, so it may still be serialized in parallel, and its size is known
+                if (collection instanceof Collection) {
+                    writeStreamingBody(collection, countingStream);
+                    ResponseMetrics.recordSerialization(metricsListener, collection, endpoint,
+                            countingStream.getCount(), System.nanoTime() - startTime);
+                    return;
+                }
+
+                ResponseMetrics.CountingIterator members = new ResponseMetrics.CountingIterator(toIterator(collection));
+
+                writeStreamingBody(members, countingStream);
+
+                metricsListener.onSerialization(members.getMemberClass(), endpoint, System.nanoTime() - startTime,
+                        countingStream.getCount(), members.getCount());
+            } finally {
+                if (collection instanceof BaseStream) {
+                    ((BaseStream) collection).close();
+                }
+            }
+        };
+    }
+
+
+    private void writeStreamingBody(Object collection, OutputStream outputStream) throws IOException {
+        Utf8BufferWriter writer = Utf8BufferWriter.to(outputStream);
+        try {
+            jsonLdBuilder.writeResponse(collection, writer);
+            writer.finish();
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+
+    private static Iterator<?> toIterator(Object collection) {
+        if (collection instanceof Stream)
+            return ((Stream<?>) collection).iterator();
+        return (Iterator<?>) collection;
+    }
+
+
+    /**
+     * @return true if object is Stream, Iterator or too big collection
+     * @see HydraSettings#getStreamingCollectionThreshold()
+     */
+    private static boolean isStreamed(Object objectToReturn) {
+        if (objectToReturn instanceof Collection) {
+            return ((Collection) objectToReturn).size() > HydraSettings.getStreamingCollectionThreshold();
+        }
+
+        return JsonLdBuilder.isCollection(objectToReturn);
+    }
+
+
+    private static HttpHeaders buildHeaders(CachePolicy cachePolicy) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Access-Control-Allow-Credentials", "true");
+        headers.add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE");
+        headers.add("Access-Control-Allow-Origin", "*");
+        headers.add("Cache-Control", cachePolicy.getCacheControl());
+        headers.add("Access-Control-Expose-Headers", "Link");
+        headers.add("Link", "<" + HydraUrlResolver.getServerAddress() + HydraUrlResolver.getVocabAddress() + ">; " +
+                "rel=\"http://www.w3.org/ns/hydra/core#apiDocumentation\"");
+        return headers;
+    }
 }
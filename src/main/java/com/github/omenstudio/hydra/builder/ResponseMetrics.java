@@ -0,0 +1,186 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.metrics.HydraMetricsListener;
+import com.github.omenstudio.hydra.response.HydraGraph;
+import com.github.omenstudio.hydra.response.HydraPage;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Collects measurements of {@link ResponseBuilder} for {@link HydraMetricsListener}.
+ * Used only when metrics are enabled.
+ */
+final class ResponseMetrics {
+
+    private ResponseMetrics() {
+    }
+
+
+    /**
+     * Reports body, which has been serialized to string
+     */
+    static void recordSerialization(HydraMetricsListener listener, Object body, String response, long nanos) {
+        recordSerialization(listener, body, getCurrentEndpoint(), utf8Length(response), nanos);
+    }
+
+
+    /**
+     * Reports body, which has been encoded right into bytes
+     *
+     * @param endpoint taken when response has been built, request may be unavailable during encoding
+     */
+    static void recordSerialization(HydraMetricsListener listener, Object body, String endpoint, long bytes, long nanos) {
+        Class<?> entityClass;
+        int members;
+
+        if (body instanceof Collection) {
+            Collection collection = (Collection) body;
+            entityClass = collection.isEmpty() ? null : getClass(collection.iterator().next());
+            members = collection.size();
+        } else if (body instanceof HydraPage) {
+            HydraPage page = (HydraPage) body;
+            entityClass = page.getMemberClass();
+            members = page.getMembers().size();
+        } else if (body instanceof HydraGraph) {
+            List<?> graph = ((HydraGraph<?>) body).getMembers();
+            entityClass = graph.isEmpty() ? null : getClass(graph.get(0));
+            members = graph.size();
+        } else {
+            entityClass = body.getClass();
+            members = -1;
+        }
+
+        listener.onSerialization(entityClass, endpoint, nanos, bytes, members);
+    }
+
+
+    /**
+     * @return mapping pattern of the current handler, null if there is no current request
+     */
+    static String getCurrentEndpoint() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes))
+            return null;
+
+        // Request is read directly: attributes don't allow it once async processing has started
+        Object pattern = ((ServletRequestAttributes) requestAttributes).getRequest()
+                .getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : null;
+    }
+
+
+    /**
+     * @return number of bytes in UTF-8 representation, without encoding
+     */
+    static long utf8Length(CharSequence text) {
+        long length = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+
+    private static Class<?> getClass(Object object) {
+        return object != null ? object.getClass() : null;
+    }
+
+
+    /**
+     * Counts members of streamed collection and remembers class of the first one
+     */
+    static final class CountingIterator implements Iterator<Object> {
+
+        private final Iterator<?> iterator;
+
+        private int count;
+
+        private Class<?> memberClass;
+
+
+        CountingIterator(Iterator<?> iterator) {
+            this.iterator = iterator;
+        }
+
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+
+        @Override
+        public Object next() {
+            Object next = iterator.next();
+            if (count++ == 0) {
+                memberClass = ResponseMetrics.getClass(next);
+            }
+            return next;
+        }
+
+
+        int getCount() {
+            return count;
+        }
+
+
+        Class<?> getMemberClass() {
+            return memberClass;
+        }
+    }
+
+
+    /**
+     * Counts bytes written to the response output stream
+     */
+    static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+
+        long getCount() {
+            return count;
+        }
+    }
+}
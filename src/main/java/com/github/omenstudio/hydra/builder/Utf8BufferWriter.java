@@ -0,0 +1,329 @@
+package com.github.omenstudio.hydra.builder;
+
+import com.github.omenstudio.hydra.cache.ETags;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * <p>
+ * Encodes chars to UTF-8 right into a pooled byte buffer, without intermediate strings
+ * and without {@link java.nio.charset.CharsetEncoder}.
+ *
+ * <p>
+ * Works in one of two modes:
+ * <ul>
+ * <li>streaming, see {@link #to(OutputStream)}: full buffer is written to the output stream,
+ * so big response starts going to the client before it is completely serialized;</li>
+ * <li>buffering, see {@link #buffered(boolean)}: full buffer is kept and the next one, twice as big, is taken,
+ * so response is held in memory until {@link #writeTo(OutputStream)}. Size of the response is known
+ * before it is sent, and content ETag can be calculated while encoding.</li>
+ * </ul>
+ *
+ * <p>
+ * Unpaired surrogates are replaced by '?', as {@link java.io.OutputStreamWriter} does.
+ * Buffers must be given back by {@link #release()}. Not thread-safe.
+ *
+ * @see BufferPool
+ */
+final class Utf8BufferWriter extends Writer {
+
+    /**
+     * Streaming buffer isn't bigger than this, so the client gets the first bytes early
+     */
+    private static final int MAX_STREAMING_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Destination, null in buffering mode
+     */
+    private final OutputStream out;
+
+    /**
+     * Full buffers in buffering mode
+     */
+    private final List<byte[]> chunks;
+
+    private final ETags.ContentHash contentHash;
+
+    private byte[] buffer;
+
+    private int position;
+
+    /**
+     * Bytes written to the destination or kept in full buffers
+     */
+    private long drained;
+
+    private char highSurrogate;
+
+    private boolean finished;
+
+
+    private Utf8BufferWriter(OutputStream out, int bufferSize, ETags.ContentHash contentHash) {
+        this.out = out;
+        this.chunks = out == null ? new ArrayList<>() : null;
+        this.contentHash = contentHash;
+        this.buffer = BufferPool.acquire(bufferSize);
+    }
+
+
+    /**
+     * Creates writer in streaming mode
+     *
+     * @param out destination, isn't closed
+     */
+    static Utf8BufferWriter to(OutputStream out) {
+        return new Utf8BufferWriter(out, Math.min(BufferPool.getExpectedSize(), MAX_STREAMING_BUFFER_SIZE), null);
+    }
+
+
+    /**
+     * Creates writer in buffering mode
+     *
+     * @param withContentHash calculate hash of written chars, see {@link #getContentETag()}
+     */
+    static Utf8BufferWriter buffered(boolean withContentHash) {
+        return new Utf8BufferWriter(null, BufferPool.getExpectedSize(), withContentHash ? new ETags.ContentHash() : null);
+    }
+
+
+    @Override
+    public void write(int c) throws IOException {
+        if (contentHash != null) {
+            contentHash.update((char) c);
+        }
+        encode((char) c);
+    }
+
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int end = offset + length;
+        if (contentHash != null) {
+            contentHash.update(chars, offset, end);
+        }
+
+        int i = offset;
+        while (i < end) {
+            // ASCII goes straight into the buffer, as far as it fits
+            if (highSurrogate == 0) {
+                byte[] bytes = buffer;
+                int pos = position;
+                int limit = Math.min(end, i + bytes.length - pos);
+                char c;
+                while (i < limit && (c = chars[i]) < 0x80) {
+                    bytes[pos++] = (byte) c;
+                    i++;
+                }
+                position = pos;
+            }
+
+            if (i < end) {
+                encode(chars[i++]);
+            }
+        }
+    }
+
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        int end = offset + length;
+        if (contentHash != null) {
+            contentHash.update(string, offset, end);
+        }
+
+        int i = offset;
+        while (i < end) {
+            if (highSurrogate == 0) {
+                byte[] bytes = buffer;
+                int pos = position;
+                int limit = Math.min(end, i + bytes.length - pos);
+                char c;
+                while (i < limit && (c = string.charAt(i)) < 0x80) {
+                    bytes[pos++] = (byte) c;
+                    i++;
+                }
+                position = pos;
+            }
+
+            if (i < end) {
+                encode(string.charAt(i++));
+            }
+        }
+    }
+
+
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                put(0xF0 | codePoint >> 18);
+                put(0x80 | codePoint >> 12 & 0x3F);
+                put(0x80 | codePoint >> 6 & 0x3F);
+                put(0x80 | codePoint & 0x3F);
+                return;
+            }
+            put('?');
+        }
+
+        if (c < 0x80) {
+            put(c);
+        } else if (c < 0x800) {
+            put(0xC0 | c >> 6);
+            put(0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            put('?');
+        } else {
+            put(0xE0 | c >> 12);
+            put(0x80 | c >> 6 & 0x3F);
+            put(0x80 | c & 0x3F);
+        }
+    }
+
+
+    private void put(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+
+    /**
+     * Frees the buffer: writes it to the destination or keeps it and takes a bigger one
+     */
+    private void drain() throws IOException {
+        if (out != null) {
+            out.write(buffer, 0, position);
+        } else {
+            chunks.add(buffer);
+            buffer = BufferPool.acquire(Math.min(buffer.length * 2, BufferPool.MAX_SIZE));
+        }
+        drained += position;
+        position = 0;
+    }
+
+
+    /**
+     * Ends writing: unpaired surrogate is written as '?', size of the response is reported to the pool
+     */
+    void finish() throws IOException {
+        if (finished)
+            return;
+
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            put('?');
+        }
+        finished = true;
+        BufferPool.recordSize(size());
+    }
+
+
+    /**
+     * @return number of bytes written so far
+     */
+    long size() {
+        return drained + position;
+    }
+
+
+    /**
+     * @return ETag of written chars, null if writer doesn't calculate it
+     * @see ETags#forContent(CharSequence)
+     */
+    String getContentETag() {
+        return contentHash != null ? contentHash.toETag() : null;
+    }
+
+
+    /**
+     * Writes bytes held in buffering mode. Buffers are released afterwards
+     *
+     * @param outputStream destination, isn't flushed or closed
+     */
+    void writeTo(OutputStream outputStream) throws IOException {
+        try {
+            for (byte[] chunk : chunks) {
+                outputStream.write(chunk);
+            }
+            outputStream.write(buffer, 0, position);
+        } finally {
+            release();
+        }
+    }
+
+
+    /**
+     * Buffering mode: copies written bytes into a single array. Buffers are kept until {@link #release()}
+     */
+    byte[] toByteArray() {
+        byte[] bytes = new byte[(int) size()];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+            offset += chunk.length;
+        }
+        System.arraycopy(buffer, 0, bytes, offset, position);
+        return bytes;
+    }
+
+
+    /**
+     * Streaming mode: writes buffered bytes to the destination and flushes it
+     */
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            drain();
+            out.flush();
+        }
+    }
+
+
+    /**
+     * Streaming mode: writes buffered bytes to the destination, which isn't closed, and releases the buffer.
+     * Buffering mode: the same as {@link #finish()}, bytes are kept
+     */
+    @Override
+    public void close() throws IOException {
+        if (out == null) {
+            finish();
+            return;
+        }
+        if (buffer == null)
+            return;
+
+        try {
+            finish();
+            drain();
+        } finally {
+            release();
+        }
+    }
+
+
+    /**
+     * Gives buffers back to the pool. Written bytes are lost
+     */
+    void release() {
+        if (buffer == null)
+            return;
+
+        if (chunks != null) {
+            chunks.forEach(BufferPool::release);
+            chunks.clear();
+        }
+        BufferPool.release(buffer);
+        buffer = null;
+    }
+}
@@ -1,22 +1,29 @@
 package com.github.omenstudio.hydra.builder;
 
+import com.github.omenstudio.hydra.cache.StaticDocument;
+import com.github.omenstudio.hydra.metrics.HydraMetrics;
 import com.github.omenstudio.hydra.utils.HydraUrlResolver;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 
@@ -24,31 +31,65 @@ import java.util.List;
 @Component
 public class VocabBuilder {
 
-    private String apiDoc = null;
+    /**
+     * Name reported to {@link HydraMetrics}
+     */
+    private static final String CACHE_NAME = "vocabulary";
 
-    private String vocabFile = null;
+    /**
+     * Published vocabulary. Replaced as a whole, so readers never see partially loaded state
+     */
+    private volatile Snapshot snapshot;
 
-    private String vocabDirectory;
+    private final Object loadLock = new Object();
 
 
     public String buildVocabulary(String vocabDirectory, String vocabFile) {
-        log.info("#buildVocabulary: started");
+        return getSnapshot(vocabDirectory, vocabFile).getApiDoc();
+    }
+
+
+    /**
+     * Same as {@link #buildVocabulary}, but returns pre-encoded document,
+     * which can be served without any conversion
+     */
+    public StaticDocument getVocabulary(String vocabDirectory, String vocabFile) {
+        return getSnapshot(vocabDirectory, vocabFile).getDocument();
+    }
 
-        if (apiDoc == null || this.vocabFile == null || !this.vocabFile.equals(vocabFile)) {
-            this.vocabFile = vocabFile;
-            this.vocabDirectory = vocabDirectory;
-            readMainVocab();
+
+    /**
+     * Returns published vocabulary. Only the first call, or the first call after vocab file
+     * or addresses change, loads vocabulary under lock. All others are a single volatile read.
+     */
+    private Snapshot getSnapshot(String vocabDirectory, String vocabFile) {
+        Snapshot current = snapshot;
+        if (current != null && current.isActual(vocabDirectory, vocabFile)) {
+            HydraMetrics.recordDocumentLookup(CACHE_NAME, true);
+            return current;
         }
 
-        return apiDoc;
+        synchronized (loadLock) {
+            current = snapshot;
+            boolean hit = current != null && current.isActual(vocabDirectory, vocabFile);
+            if (!hit) {
+                log.info("#buildVocabulary: started");
+                current = readMainVocab(vocabDirectory, vocabFile);
+                snapshot = current;
+            }
+
+            HydraMetrics.recordDocumentLookup(CACHE_NAME, hit);
+            return current;
+        }
     }
 
 
-    private void readMainVocab() {
+    private Snapshot readMainVocab(String vocabDirectory, String vocabFile) {
+        int addressesVersion = HydraUrlResolver.getAddressesVersion();
 
-        String readedData = readFileContent(vocabDirectory + vocabFile)
-                .replaceAll("API_ADDR", HydraUrlResolver.getServerAddress() + HydraUrlResolver.getApiAddress())
-                .replaceAll("VOCAB_ADDR", HydraUrlResolver.getServerAddress() + HydraUrlResolver.getVocabAddress());
+        String readedData = readFileContent(vocabDirectory + vocabFile);
+        readedData = replace(readedData, "API_ADDR", HydraUrlResolver.getServerAddress() + HydraUrlResolver.getApiAddress());
+        readedData = replace(readedData, "VOCAB_ADDR", HydraUrlResolver.getServerAddress() + HydraUrlResolver.getVocabAddress());
 
         final JsonParser parser = new JsonParser();
 
@@ -57,15 +98,40 @@ public class VocabBuilder {
 
         log.info("#readMainVocab: vocab parsed as json");
 
-        findFilesInDir(vocabDirectory).stream()
+        // Files are read and parsed in parallel, but added in the order they have been found
+        List<JsonElement> additionalClasses = findFilesInDir(vocabDirectory).parallelStream()
                 .filter(e -> !e.toString().endsWith("vocab.json"))
                 .map(this::readFileContent)
                 .map(parser::parse)
-                .forEach(classes::add);
+                .collect(Collectors.toList());
+        additionalClasses.forEach(classes::add);
 
         log.info("#readMainVocab: additional files are readed");
 
-        apiDoc = resultJson.toString();
+        String apiDoc = resultJson.toString();
+        return new Snapshot(vocabDirectory, vocabFile, addressesVersion, apiDoc, StaticDocument.build(() -> apiDoc));
+    }
+
+
+    /**
+     * Replaces all occurrences of placeholder without regular expressions
+     */
+    private static String replace(String source, String placeholder, String replacement) {
+        int index = source.indexOf(placeholder);
+        if (index < 0) {
+            return source;
+        }
+
+        StringBuilder result = new StringBuilder(source.length() + replacement.length());
+        int start = 0;
+        while (index >= 0) {
+            result.append(source, start, index).append(replacement);
+            start = index + placeholder.length();
+            index = source.indexOf(placeholder, start);
+        }
+        result.append(source, start, source.length());
+
+        return result.toString();
     }
 
 
@@ -101,16 +167,8 @@ public class VocabBuilder {
 
 
     private String readFileContent(URL fileUrl) {
-        try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(fileUrl.openStream()));
-            StringBuilder out = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                out.append(line);
-            }
-            reader.close();
-
-            return out.toString();
+        try (InputStream inputStream = fileUrl.openStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
         } catch (Exception e) {
             log.error(e.toString());
         }
@@ -118,4 +176,28 @@ public class VocabBuilder {
     }
 
 
+    /**
+     * Immutable loaded vocabulary
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Snapshot {
+
+        private final String vocabDirectory;
+
+        private final String vocabFile;
+
+        private final int addressesVersion;
+
+        private final String apiDoc;
+
+        private final StaticDocument document;
+
+
+        boolean isActual(String vocabDirectory, String vocabFile) {
+            return this.vocabFile.equals(vocabFile) &&
+                    this.vocabDirectory.equals(vocabDirectory) &&
+                    addressesVersion == HydraUrlResolver.getAddressesVersion();
+        }
+    }
 }
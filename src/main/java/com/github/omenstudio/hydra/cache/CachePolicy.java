@@ -0,0 +1,94 @@
+package com.github.omenstudio.hydra.cache;
+
+import com.github.omenstudio.hydra.annotation.context.HydraContextClass;
+import com.github.omenstudio.hydra.annotation.context.HydraContextCollection;
+import com.github.omenstudio.hydra.annotation.context.HydraContextEntryPoint;
+import com.github.omenstudio.hydra.annotation.request.HydraCacheable;
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import lombok.Getter;
+
+
+/**
+ * <p>
+ * How response may be cached by clients: Cache-Control header value
+ * and whether response is validated by ETag and If-None-Match.
+ * And how long it is kept by {@link ResponseCache} of the framework itself.
+ *
+ * <p>
+ * Built from attributes of request and context annotations.
+ */
+@Getter
+public final class CachePolicy {
+
+    /**
+     * Policy of modifying requests: "no-cache" without validation
+     */
+    public static final CachePolicy NO_CACHE = new CachePolicy(-1, false, false, false, false, 0);
+
+    /**
+     * Default policy of reading requests: "no-cache", so client revalidates response using ETag every time
+     */
+    public static final CachePolicy REVALIDATE = new CachePolicy(-1, false, false, true, false, 0);
+
+
+    private final String cacheControl;
+
+    /**
+     * True if ETag is sent and If-None-Match is checked
+     */
+    private final boolean conditional;
+
+    /**
+     * True if ETag calculated from the body is sent even if request has no If-None-Match
+     *
+     * @see HydraGetRequest#contentETag()
+     */
+    private final boolean contentETag;
+
+    /**
+     * Seconds serialized entity is kept by {@link ResponseCache}, 0 if it isn't kept
+     *
+     * @see HydraCacheable#ttl()
+     */
+    private final long responseCacheTtl;
+
+
+    private CachePolicy(long maxAge, boolean privateCache, boolean immutable, boolean conditional, boolean contentETag,
+                        long responseCacheTtl) {
+        StringBuilder value = new StringBuilder(maxAge < 0 ? "no-cache" : "max-age=" + maxAge);
+        if (privateCache)
+            value.append(", private");
+        if (immutable && maxAge >= 0)
+            value.append(", immutable");
+
+        this.cacheControl = value.toString();
+        this.conditional = conditional;
+        this.contentETag = contentETag;
+        this.responseCacheTtl = Math.max(responseCacheTtl, 0);
+    }
+
+
+    public static CachePolicy of(HydraGetRequest annotation) {
+        return of(annotation, null);
+    }
+
+    /**
+     * @param cacheable annotation of the same method, null if responses aren't cached by the framework
+     */
+    public static CachePolicy of(HydraGetRequest annotation, HydraCacheable cacheable) {
+        return new CachePolicy(annotation.maxAge(), annotation.privateCache(), annotation.immutable(), true,
+                annotation.contentETag(), cacheable != null ? cacheable.ttl() : 0);
+    }
+
+    public static CachePolicy of(HydraContextClass annotation) {
+        return new CachePolicy(annotation.maxAge(), annotation.privateCache(), annotation.immutable(), true, false, 0);
+    }
+
+    public static CachePolicy of(HydraContextCollection annotation) {
+        return new CachePolicy(annotation.maxAge(), annotation.privateCache(), annotation.immutable(), true, false, 0);
+    }
+
+    public static CachePolicy of(HydraContextEntryPoint annotation) {
+        return new CachePolicy(annotation.maxAge(), annotation.privateCache(), annotation.immutable(), true, false, 0);
+    }
+}
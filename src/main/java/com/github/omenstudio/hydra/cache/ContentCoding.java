@@ -0,0 +1,113 @@
+package com.github.omenstudio.hydra.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Content codings, in which static documents are kept pre-compressed
+ *
+ * @see StaticDocument#getContent(ContentCoding)
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+
+    DEFLATE("deflate");
+
+
+    private final String token;
+
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+
+    /**
+     * @return value of Content-Encoding header
+     */
+    public String getToken() {
+        return token;
+    }
+
+
+    public byte[] compress(byte[] content) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(content.length / 2 + 64);
+
+        try (OutputStream compressor = this == GZIP ? new GZIPOutputStream(result) : new DeflaterOutputStream(result)) {
+            compressor.write(content);
+        } catch (IOException e) {
+            // Can't happen, everything is written to memory
+            throw new IllegalStateException(e);
+        }
+
+        return result.toByteArray();
+    }
+
+
+    /**
+     * Chooses coding by Accept-Encoding header. Gzip is preferred when qualities are equal.
+     * Quality of {@code *} applies only to codings, which aren't listed explicitly,
+     * so coding with {@code q=0} is never chosen.
+     *
+     * @param acceptEncoding header value, may be null
+     * @return the most preferable coding, null if content must be sent as is
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty())
+            return null;
+
+        float[] qualities = new float[values().length];
+        Arrays.fill(qualities, -1);
+        float anyQuality = 0;
+
+        for (String element : acceptEncoding.split(",")) {
+            int parametersStart = element.indexOf(';');
+            String name = (parametersStart < 0 ? element : element.substring(0, parametersStart)).trim();
+            float quality = parametersStart < 0 ? 1 : parseQuality(element.substring(parametersStart + 1));
+
+            if (name.equals("*")) {
+                anyQuality = quality;
+            }
+            for (ContentCoding coding : values()) {
+                if (name.equalsIgnoreCase(coding.token)) {
+                    qualities[coding.ordinal()] = quality;
+                }
+            }
+        }
+
+        ContentCoding chosen = null;
+        float chosenQuality = 0;
+
+        // Codings are ordered by preference, so the first one wins on equal quality
+        for (ContentCoding coding : values()) {
+            float quality = qualities[coding.ordinal()] >= 0 ? qualities[coding.ordinal()] : anyQuality;
+            if (quality > chosenQuality) {
+                chosen = coding;
+                chosenQuality = quality;
+            }
+        }
+
+        return chosen;
+    }
+
+
+    private static float parseQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            parameter = parameter.trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.omenstudio.hydra.cache;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * <p>
+ * Weak entity tags and If-None-Match matching.
+ *
+ * <p>
+ * Tags are weak, because the same representation may be sent with different content encoding.
+ */
+public final class ETags {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+
+    private ETags() {
+    }
+
+
+    /**
+     * Calculates tag from the serialized body with 64-bit FNV-1a hash.
+     * Chars are hashed directly, so body isn't encoded or copied.
+     */
+    public static String forContent(CharSequence content) {
+        ContentHash hash = new ContentHash();
+        hash.update(content, 0, content.length());
+        return hash.toETag();
+    }
+
+
+    public static String forDocument(StaticDocument document) {
+        return "W/\"" + document.getHash() + "\"";
+    }
+
+
+    /**
+     * Calculates tag from entity version
+     *
+     * @see com.github.omenstudio.hydra.annotation.model.HydraVersion
+     * @see #toVersionToken(Object)
+     */
+    public static String forVersion(Object version) {
+        return "W/\"v" + toVersionToken(version) + "\"";
+    }
+
+
+    /**
+     * Calculates tag from entity version and versions of entities embedded into it
+     *
+     * @param embeddedVersions ids and versions of embedded entities, hashed into the tag
+     */
+    public static String forVersion(Object version, CharSequence embeddedVersions) {
+        ContentHash hash = new ContentHash();
+        hash.update(embeddedVersions, 0, embeddedVersions.length());
+        return "W/\"v" + toVersionToken(version) + "-" + Long.toHexString(hash.hash) + "\"";
+    }
+
+
+    /**
+     * <p>
+     * Converts entity version to characters allowed in entity tag, which change whenever the version changes.
+     *
+     * <p>
+     * Numbers are taken as is. Dates and instants are taken as epoch milliseconds, followed by nanoseconds
+     * of the millisecond if there are any; local date-times are taken in UTC. Other values are taken
+     * as hash of their string representation, which may contain spaces, quotes and commas.
+     *
+     * @param version value of {@link com.github.omenstudio.hydra.annotation.model.HydraVersion} field, not null
+     */
+    public static String toVersionToken(Object version) {
+        if (version instanceof Number)
+            return version.toString();
+
+        if (version instanceof Date)
+            return Long.toString(((Date) version).getTime());
+
+        if (version instanceof LocalDate)
+            return Long.toString(((LocalDate) version).toEpochDay());
+
+        if (version instanceof LocalDateTime) {
+            version = ((LocalDateTime) version).toInstant(ZoneOffset.UTC);
+        }
+
+        if (version instanceof TemporalAccessor && ((TemporalAccessor) version).isSupported(ChronoField.INSTANT_SECONDS)) {
+            TemporalAccessor instant = (TemporalAccessor) version;
+            int nanos = instant.isSupported(ChronoField.NANO_OF_SECOND) ? instant.get(ChronoField.NANO_OF_SECOND) : 0;
+            long millis = instant.getLong(ChronoField.INSTANT_SECONDS) * 1000 + nanos / 1_000_000;
+            return nanos % 1_000_000 == 0 ? Long.toString(millis) : millis + "." + nanos % 1_000_000;
+        }
+
+        String value = version.toString();
+        ContentHash hash = new ContentHash();
+        hash.update(value, 0, value.length());
+        return Long.toHexString(hash.hash);
+    }
+
+
+    /**
+     * Checks If-None-Match header using weak comparison
+     *
+     * @param ifNoneMatch header value, may be null
+     * @param etag        tag of the current representation
+     * @return true if client has the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null)
+            return false;
+
+        String opaqueTag = stripWeakness(etag);
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeakness(candidate).equals(opaqueTag))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    private static String stripWeakness(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+
+    /**
+     * Hash of {@link #forContent}, calculated while body is being written in parts.
+     * Gives the same tag as the whole body passed at once.
+     */
+    public static final class ContentHash {
+
+        private long hash = FNV_OFFSET_BASIS;
+
+
+        public void update(char c) {
+            hash ^= c;
+            hash *= FNV_PRIME;
+        }
+
+
+        public void update(CharSequence chars, int start, int end) {
+            long h = hash;
+            for (int i = start; i < end; i++) {
+                h ^= chars.charAt(i);
+                h *= FNV_PRIME;
+            }
+            hash = h;
+        }
+
+
+        public void update(char[] chars, int start, int end) {
+            long h = hash;
+            for (int i = start; i < end; i++) {
+                h ^= chars[i];
+                h *= FNV_PRIME;
+            }
+            hash = h;
+        }
+
+
+        public String toETag() {
+            return "W/\"" + Long.toHexString(hash) + "\"";
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.github.omenstudio.hydra.cache;
+
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.github.omenstudio.hydra.metadata.FieldDescriptor;
+import com.github.omenstudio.hydra.metrics.HydraMetrics;
+import com.github.omenstudio.hydra.response.HydraGraph;
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * <p>
+ * Serialized entities of {@link com.github.omenstudio.hydra.annotation.request.HydraCacheable} endpoints,
+ * pre-encoded in UTF-8 together with their content ETag.
+ *
+ * <p>
+ * Entity is looked up by its class, id and {@link com.github.omenstudio.hydra.annotation.model.HydraVersion} field,
+ * so a new version is never served from an old entry. Entries expire after ttl of the endpoint
+ * and become stale when {@link HydraUrlResolver} addresses change. Total size of entries is limited by
+ * {@link HydraSettings#getResponseCacheMaxBytes()}, least recently used entries are evicted first.
+ *
+ * <p>
+ * Entries are dropped by {@link #invalidate(Object, Collection, String)} when entities are written.
+ * Entries of entities, which links may embed written entity, are dropped too.
+ * Entries are indexed by class and id, so invalidation doesn't depend on the number of cached entities.
+ *
+ * <p>
+ * Lookups are reported to {@link HydraMetrics} as lookups of {@link #NAME} cache.
+ * Thread-safe.
+ */
+public final class ResponseCache {
+
+    /**
+     * Name of the cache reported to {@link HydraMetrics}
+     */
+    public static final String NAME = "responses";
+
+    /**
+     * Classes, which values of link fields may have, through all levels of links
+     */
+    private static final ClassValue<Class<?>[]> EMBEDDED_TYPES = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Set<Class<?>> embedded = new HashSet<>();
+            collectEmbeddedTypes(type, embedded);
+            return embedded.toArray(new Class<?>[0]);
+        }
+    };
+
+    /**
+     * Guarded by this. Ordered by access, the eldest entry is the least recently used
+     */
+    private final LinkedHashMap<Key, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Guarded by this. Keys of entries by class and id, an entity may be cached in several versions
+     */
+    private final Map<Class<?>, Map<String, Set<Key>>> index = new HashMap<>();
+
+    /**
+     * Guarded by this
+     */
+    private long weight;
+
+    /**
+     * Incremented on every invalidation, so entity read before it isn't put after it
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+
+    /**
+     * @return current generation, which must be passed to {@link #put} of entity serialized after this call
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+
+    /**
+     * @param key key of the entity
+     * @return serialized entity, null if it isn't cached, expired or stale
+     */
+    public CachedResponse get(Key key) {
+        CachedResponse response;
+        synchronized (this) {
+            response = entries.get(key);
+            if (response != null && !response.isValid()) {
+                remove(key);
+                response = null;
+            }
+        }
+
+        boolean hit = response != null;
+        if (hit)
+            hits.increment();
+        else
+            misses.increment();
+        HydraMetrics.recordDocumentLookup(NAME, hit);
+
+        return response;
+    }
+
+
+    /**
+     * Keeps serialized entity. Entity isn't kept if it is bigger than the whole cache
+     * or if entries have been invalidated since the given generation
+     *
+     * @param key         key of the entity
+     * @param content     UTF-8 encoded entity, must not be modified afterwards
+     * @param contentETag ETag calculated from the content
+     * @param ttl         seconds to keep the entity
+     * @param generation  {@link #getGeneration()} taken before the entity has been read
+     * @return serialized entity
+     */
+    public CachedResponse put(Key key, byte[] content, String contentETag, long ttl, long generation) {
+        CachedResponse response = new CachedResponse(content, contentETag,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl), HydraUrlResolver.getAddressesVersion());
+
+        long maxBytes = HydraSettings.getResponseCacheMaxBytes();
+        if (content.length > maxBytes)
+            return response;
+
+        synchronized (this) {
+            if (generation != this.generation.get())
+                return response;
+
+            remove(key);
+            entries.put(key, response);
+            weight += content.length;
+            index.computeIfAbsent(key.type, type -> new HashMap<>())
+                    .computeIfAbsent(key.id, id -> new HashSet<>(2))
+                    .add(key);
+
+            Iterator<Map.Entry<Key, CachedResponse>> eldest = entries.entrySet().iterator();
+            while (weight > maxBytes && eldest.hasNext()) {
+                Map.Entry<Key, CachedResponse> entry = eldest.next();
+                weight -= entry.getValue().getLength();
+                eldest.remove();
+                removeFromIndex(entry.getKey());
+                evictions.increment();
+            }
+        }
+
+        return response;
+    }
+
+
+    /**
+     * <p>
+     * Drops entries of written entities, and entries of entities, which may embed them through links.
+     *
+     * <p>
+     * Entities are known by the written value and by classes of the write method.
+     * Class of the method is narrowed to a single entity, if the request path is IRI of its entity.
+     * Otherwise all entries of the class are dropped.
+     *
+     * @param writtenValue  value returned by write method: entity, Collection or {@link HydraGraph}, may be null
+     * @param writtenClasses entity classes the write method takes or returns
+     * @param requestPath   path of the write request, null if it is unknown
+     */
+    public void invalidate(Object writtenValue, Collection<Class<?>> writtenClasses, String requestPath) {
+        if (isEmpty()) {
+            // Entities read before the write must not be put after it
+            generation.incrementAndGet();
+            return;
+        }
+
+        Collection<?> writtenEntities = writtenValue instanceof HydraGraph ? ((HydraGraph<?>) writtenValue).getMembers()
+                : writtenValue instanceof Collection ? (Collection<?>) writtenValue
+                : null;
+
+        if (writtenEntities != null) {
+            writtenEntities.forEach(this::invalidateEntity);
+        } else if (writtenValue != null) {
+            invalidateEntity(writtenValue);
+        }
+
+        for (Class<?> writtenClass : writtenClasses) {
+            String id = HydraUrlResolver.getIdFromIri(writtenClass, requestPath);
+            invalidate(writtenClass, id == null || id.isEmpty() ? null : id);
+        }
+
+        // Write method of unknown classes, e.g. DELETE returning nothing, is found by its path
+        if (requestPath != null) {
+            for (Class<?> cachedClass : getCachedClasses()) {
+                String id = HydraUrlResolver.getIdFromIri(cachedClass, requestPath);
+                if (id != null && !id.isEmpty() && !writtenClasses.contains(cachedClass)) {
+                    invalidate(cachedClass, id);
+                }
+            }
+        }
+    }
+
+
+    private void invalidateEntity(Object entity) {
+        Key key = Key.of(entity);
+        if (key != null) {
+            invalidate(key.type, key.id);
+        }
+    }
+
+
+    /**
+     * Drops entries of the entity, or of all entities of the class, and entries which may embed them
+     *
+     * @param type entity class
+     * @param id   string representation of the id, null to drop all entities of the class
+     */
+    public synchronized void invalidate(Class<?> type, String id) {
+        generation.incrementAndGet();
+
+        Map<String, Set<Key>> ids = index.get(type);
+        if (ids != null) {
+            if (id == null) {
+                invalidateAll(ids);
+            } else if (ids.containsKey(id)) {
+                invalidate(new ArrayList<>(ids.get(id)));
+            }
+        }
+
+        // Which entities embed the written one isn't known, so whole classes are dropped
+        for (Class<?> cachedType : new ArrayList<>(index.keySet())) {
+            if (embeds(cachedType, type)) {
+                invalidateAll(index.get(cachedType));
+            }
+        }
+    }
+
+
+    private void invalidateAll(Map<String, Set<Key>> ids) {
+        List<Key> keys = new ArrayList<>();
+        ids.values().forEach(keys::addAll);
+        invalidate(keys);
+    }
+
+
+    private void invalidate(List<Key> keys) {
+        for (Key key : keys) {
+            remove(key);
+            invalidations.increment();
+        }
+    }
+
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        index.clear();
+        weight = 0;
+    }
+
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * @return total size of serialized entities in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+
+    /**
+     * @return hits divided by all lookups, 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long currentHits = hits.sum();
+        long total = currentHits + misses.sum();
+        return total == 0 ? 0 : (double) currentHits / total;
+    }
+
+
+    /**
+     * @return number of entries dropped to fit into {@link HydraSettings#getResponseCacheMaxBytes()}
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    /**
+     * @return number of entries dropped because entities have been written
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+
+    private void remove(Key key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.getLength();
+            removeFromIndex(key);
+        }
+    }
+
+
+    private void removeFromIndex(Key key) {
+        Map<String, Set<Key>> ids = index.get(key.type);
+        Set<Key> keys = ids.get(key.id);
+        keys.remove(key);
+
+        if (keys.isEmpty()) {
+            ids.remove(key.id);
+            if (ids.isEmpty()) {
+                index.remove(key.type);
+            }
+        }
+    }
+
+
+    private synchronized Set<Class<?>> getCachedClasses() {
+        return new HashSet<>(index.keySet());
+    }
+
+
+    /**
+     * @return classes, which values of link fields of the class may have, through all levels of links
+     */
+    public static List<Class<?>> getEmbeddedTypes(Class<?> type) {
+        return Collections.unmodifiableList(Arrays.asList(EMBEDDED_TYPES.get(type)));
+    }
+
+
+    /**
+     * @return true if serialized entity of the cached class may contain entity of the written class
+     */
+    private static boolean embeds(Class<?> cachedType, Class<?> writtenType) {
+        for (Class<?> embeddedType : EMBEDDED_TYPES.get(cachedType)) {
+            if (embeddedType.isAssignableFrom(writtenType))
+                return true;
+        }
+        return false;
+    }
+
+
+    private static void collectEmbeddedTypes(Class<?> type, Set<Class<?>> embedded) {
+        for (FieldDescriptor link : EntityDescriptorRegistry.get(type).getLinkFields()) {
+            List<Class<?>> linkTypes = new ArrayList<>();
+            collectTypes(ResolvableType.forField(link.getField()), linkTypes);
+
+            for (Class<?> linkType : linkTypes) {
+                if (embedded.add(linkType) && EntityDescriptorRegistry.get(linkType).isEntity()) {
+                    collectEmbeddedTypes(linkType, embedded);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Collects declared class, element class of arrays and classes of generic parameters, e.g. of List
+     */
+    private static void collectTypes(ResolvableType type, List<Class<?>> types) {
+        if (type.isArray()) {
+            collectTypes(type.getComponentType(), types);
+            return;
+        }
+
+        types.add(type.resolve(Object.class));
+        for (ResolvableType generic : type.getGenerics()) {
+            collectTypes(generic, types);
+        }
+    }
+
+
+    /**
+     * Identity of serialized entity: class, id and version
+     */
+    public static final class Key {
+
+        private final Class<?> type;
+
+        private final String id;
+
+        private final String version;
+
+        private final int hash;
+
+
+        private Key(Class<?> type, String id, String version) {
+            this.type = type;
+            this.id = id;
+            this.version = version;
+            this.hash = 31 * (31 * type.hashCode() + id.hashCode()) + Objects.hashCode(version);
+        }
+
+
+        /**
+         * @return key of the entity, null if object isn't an entity or has no id
+         */
+        public static Key of(Object entity) {
+            if (entity == null)
+                return null;
+
+            EntityDescriptor descriptor = EntityDescriptorRegistry.get(entity);
+            if (!descriptor.isEntity() || descriptor.getIdField() == null)
+                return null;
+
+            if (descriptor.getIdField().getValue(entity) == null)
+                return null;
+
+            FieldDescriptor versionField = descriptor.getVersionField();
+            Object version = versionField != null ? versionField.getValue(entity) : null;
+
+            return new Key(entity.getClass(), descriptor.getIdField().getValueAsString(entity),
+                    version != null ? ETags.toVersionToken(version) : null);
+        }
+
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+
+            Key key = (Key) o;
+            return type == key.type && id.equals(key.id) && Objects.equals(version, key.version);
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+
+    /**
+     * Serialized entity
+     */
+    @Getter
+    public static final class CachedResponse {
+
+        /**
+         * UTF-8 encoded entity. Shared, must not be modified
+         */
+        private final byte[] content;
+
+        private final String contentETag;
+
+        private final long expirationTime;
+
+        private final int addressesVersion;
+
+
+        private CachedResponse(byte[] content, String contentETag, long expirationTime, int addressesVersion) {
+            this.content = content;
+            this.contentETag = contentETag;
+            this.expirationTime = expirationTime;
+            this.addressesVersion = addressesVersion;
+        }
+
+
+        public int getLength() {
+            return content.length;
+        }
+
+
+        /**
+         * @return false if entry has expired or addresses have been changed since it was serialized
+         */
+        boolean isValid() {
+            return System.nanoTime() - expirationTime < 0 && addressesVersion == HydraUrlResolver.getAddressesVersion();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.omenstudio.hydra.cache;
+
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+
+/**
+ * <p>
+ * Document, which is built once and then served as is: context or API documentation.
+ *
+ * <p>
+ * Content is kept pre-encoded in UTF-8 together with its hash,
+ * so serving it costs neither serialization nor encoding.
+ * Document remembers {@link HydraUrlResolver#getAddressesVersion()} it was built with
+ * and becomes stale when addresses change.
+ *
+ * <p>
+ * Compressed variants are kept next to the raw content. Each of them is built once,
+ * when it is requested for the first time.
+ */
+@Getter
+public final class StaticDocument {
+
+    /**
+     * UTF-8 encoded content. Shared, must not be modified
+     */
+    private final byte[] content;
+
+    /**
+     * Hex encoded MD5 of the content
+     */
+    private final String hash;
+
+    private final int addressesVersion;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReferenceArray<byte[]> compressedContent =
+            new AtomicReferenceArray<>(ContentCoding.values().length);
+
+
+    private StaticDocument(byte[] content, int addressesVersion) {
+        this.content = content;
+        this.hash = DigestUtils.md5DigestAsHex(content);
+        this.addressesVersion = addressesVersion;
+    }
+
+
+    /**
+     * Builds document bound to the current addresses of {@link HydraUrlResolver}.
+     * Addresses version is taken before building, so concurrent change makes the document stale.
+     *
+     * @param contentBuilder builds document content
+     */
+    public static StaticDocument build(Supplier<String> contentBuilder) {
+        int addressesVersion = HydraUrlResolver.getAddressesVersion();
+        byte[] content = contentBuilder.get().getBytes(StandardCharsets.UTF_8);
+        return new StaticDocument(content, addressesVersion);
+    }
+
+
+    /**
+     * @return true if addresses have been changed since document was built
+     */
+    public boolean isStale() {
+        return addressesVersion != HydraUrlResolver.getAddressesVersion();
+    }
+
+
+    public int getLength() {
+        return content.length;
+    }
+
+
+    /**
+     * Returns content compressed with the given coding. Documents smaller than
+     * {@link HydraSettings#getCompressionThreshold()} and documents, which don't become smaller,
+     * are not compressed.
+     *
+     * @param coding content coding
+     * @return compressed content, or raw content if it is not worth compressing.
+     * Shared, must not be modified
+     */
+    public byte[] getContent(ContentCoding coding) {
+        if (coding == null || content.length < HydraSettings.getCompressionThreshold())
+            return content;
+
+        byte[] variant = compressedContent.get(coding.ordinal());
+        if (variant == null) {
+            byte[] compressed = coding.compress(content);
+            variant = compressed.length < content.length ? compressed : content;
+            compressedContent.set(coding.ordinal(), variant);
+        }
+
+        return variant;
+    }
+
+
+    @Override
+    public String toString() {
+        return new String(content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.omenstudio.hydra.cache;
+
+import com.github.omenstudio.hydra.metrics.HydraMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+
+/**
+ * <p>
+ * Lazily filled cache of {@link StaticDocument}s.
+ *
+ * <p>
+ * Document is built on the first access to its key and rebuilt only after
+ * {@link com.github.omenstudio.hydra.utils.HydraUrlResolver} addresses change.
+ * Reading a built document is a single lock-free map lookup.
+ *
+ * @param <K> key type, must have proper equals and hashCode
+ */
+public final class StaticDocumentCache<K> {
+
+    private final ConcurrentMap<K, StaticDocument> documents = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final Function<K, String> contentBuilder;
+
+
+    /**
+     * @param name           name of the cache, reported to {@link HydraMetrics}
+     * @param contentBuilder builds document content by key
+     */
+    public StaticDocumentCache(String name, Function<K, String> contentBuilder) {
+        this.name = name;
+        this.contentBuilder = contentBuilder;
+    }
+
+
+    public StaticDocument get(K key) {
+        StaticDocument document = documents.get(key);
+
+        boolean hit = document != null && !document.isStale();
+        if (!hit) {
+            document = StaticDocument.build(() -> contentBuilder.apply(key));
+            documents.put(key, document);
+        }
+
+        HydraMetrics.recordDocumentLookup(name, hit);
+        return document;
+    }
+
+
+    public void clear() {
+        documents.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.omenstudio.hydra.config;
+
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.ClassUtils;
+
+
+/**
+ * Aspects are registered only in {@link HydraSettings#isAspectMode() aspect mode} and if AspectJ,
+ * which is an optional dependency, is on the classpath. Otherwise responses are built by
+ * {@link com.github.omenstudio.hydra.handler.HydraReturnValueHandler}, so only one of them is ever registered
+ *
+ * @see HandlerModeCondition
+ */
+public class AspectModeCondition implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        return HydraSettings.isAspectMode()
+                && ClassUtils.isPresent("org.aspectj.lang.ProceedingJoinPoint", context.getClassLoader());
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.omenstudio.hydra.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+
+/**
+ * {@link HydraReturnValueHandlerInstaller} is registered whenever aspects aren't
+ *
+ * @see AspectModeCondition
+ */
+class HandlerModeCondition implements Condition {
+
+    private final AspectModeCondition aspectModeCondition = new AspectModeCondition();
+
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        return !aspectModeCondition.matches(context, metadata);
+    }
+}
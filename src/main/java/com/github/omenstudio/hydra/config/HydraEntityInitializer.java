@@ -0,0 +1,230 @@
+package com.github.omenstudio.hydra.config;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.builder.ContextBuilder;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.ResponseCache;
+import com.github.omenstudio.hydra.metadata.EntityDescriptor;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import com.github.omenstudio.hydra.metadata.EntityValidator;
+import com.github.omenstudio.hydra.metadata.FieldDescriptor;
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * <p>
+ * Prepares {@link HydraEntity} classes on startup, so neither invalid annotations nor cold serialization code
+ * are found by the first requests. Enabled by {@link HydraSettings#setEntityScanPackages(String...)}.
+ *
+ * <p>
+ * Once all singletons are created, packages are scanned for entity classes. Annotations of the found classes
+ * and of entities they link to are validated by {@link EntityValidator}, and startup fails listing all problems.
+ * Then serialization plans, contexts of classes and collections are built in advance.
+ *
+ * <p>
+ * If {@link HydraSettings#getWarmUpIterations()} is positive, each entity, which has a no-arguments constructor,
+ * is instantiated with synthetic field values and serialized that many times, alone and as a collection.
+ * Synthetic instances aren't validated by the application, so failures of warm-up are only logged.
+ */
+@Slf4j
+@Component
+public class HydraEntityInitializer implements SmartInitializingSingleton {
+
+    /**
+     * Members of the collection serialized on warm-up
+     */
+    private static final int WARM_UP_COLLECTION_SIZE = 10;
+
+    @Autowired
+    private ResponseBuilder responseBuilder;
+
+    @Autowired
+    private ContextBuilder contextBuilder;
+
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String[] packages = HydraSettings.getEntityScanPackages();
+        if (packages == null || packages.length == 0)
+            return;
+
+        long startTime = System.nanoTime();
+
+        Set<Class<?>> entities = findEntities(packages);
+        validate(entities);
+
+        for (Class<?> entity : entities) {
+            contextBuilder.getContextForClass(entity);
+            contextBuilder.getContextForCollection(entity);
+        }
+
+        int iterations = HydraSettings.getWarmUpIterations();
+        if (iterations > 0) {
+            entities.forEach(entity -> warmUp(entity, iterations));
+        }
+
+        log.info("#afterSingletonsInstantiated: " + entities.size() + " entities are prepared in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+    }
+
+
+    /**
+     * @return entity classes of the packages and entity classes they link to
+     */
+    private static Set<Class<?>> findEntities(String[] packages) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                // Abstract classes and interfaces are entities too
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter(new AnnotationTypeFilter(HydraEntity.class, false));
+
+        Set<Class<?>> entities = new LinkedHashSet<>();
+        for (String basePackage : packages) {
+            for (BeanDefinition definition : scanner.findCandidateComponents(basePackage)) {
+                entities.add(ClassUtils.resolveClassName(definition.getBeanClassName(), ClassUtils.getDefaultClassLoader()));
+            }
+        }
+
+        for (Class<?> entity : new ArrayList<>(entities)) {
+            if (EntityValidator.validate(entity).isEmpty()) {
+                for (Class<?> linked : ResponseCache.getEmbeddedTypes(entity)) {
+                    if (EntityDescriptorRegistry.get(linked).isEntity()) {
+                        entities.add(linked);
+                    }
+                }
+            }
+        }
+
+        return entities;
+    }
+
+
+    private static void validate(Set<Class<?>> entities) {
+        List<String> problems = new ArrayList<>();
+        for (Class<?> entity : entities) {
+            problems.addAll(EntityValidator.validate(entity));
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid annotations of Hydra entities:\n  " + String.join("\n  ", problems));
+        }
+    }
+
+
+    private void warmUp(Class<?> entity, int iterations) {
+        Object sample = createSample(entity, 0);
+        if (sample == null) {
+            log.debug("#warmUp: " + entity.getName() + " can't be instantiated, it is not warmed up");
+            return;
+        }
+
+        List<Object> collection = Collections.nCopies(WARM_UP_COLLECTION_SIZE, sample);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                responseBuilder.warmUp(sample);
+                responseBuilder.warmUp(collection);
+            }
+        } catch (Exception e) {
+            log.warn("#warmUp: synthetic " + entity.getName() + " can't be serialized, it is not warmed up: " + e.toString());
+        }
+    }
+
+
+    /**
+     * Creates entity with synthetic identifier, IRI template variables, string and number fields,
+     * and linked entities up to the embedding depth
+     *
+     * @return entity or null, if there is no constructor without arguments
+     */
+    private static Object createSample(Class<?> type, int depth) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()))
+            return null;
+
+        Object sample;
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            sample = constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+
+        EntityDescriptor descriptor = EntityDescriptorRegistry.get(type);
+        List<FieldDescriptor> identifiers = new ArrayList<>(descriptor.getEntityTemplate().getVariables().values());
+        identifiers.addAll(descriptor.getCollectionTemplate().getVariables().values());
+        if (descriptor.getIdField() != null) {
+            identifiers.add(descriptor.getIdField());
+        }
+        for (FieldDescriptor identifier : identifiers) {
+            setSampleValue(sample, identifier.getField(), createScalar(identifier.getField().getType()));
+        }
+
+        for (FieldDescriptor field : descriptor.getFields()) {
+            Class<?> fieldType = field.getField().getType();
+
+            if (!field.isLink()) {
+                setSampleValue(sample, field.getField(), createScalar(fieldType));
+            } else if (depth < HydraSettings.getMaxEmbeddingDepth() && EntityDescriptorRegistry.get(fieldType).isEntity()) {
+                setSampleValue(sample, field.getField(), createSample(fieldType, depth + 1));
+            } else if (depth < HydraSettings.getMaxEmbeddingDepth() && fieldType.isAssignableFrom(ArrayList.class)) {
+                Class<?> memberType = ResolvableType.forField(field.getField()).resolveGeneric(0);
+                Object member = memberType != null ? createSample(memberType, depth + 1) : null;
+                if (member != null) {
+                    setSampleValue(sample, field.getField(), new ArrayList<>(Collections.singletonList(member)));
+                }
+            }
+        }
+
+        return sample;
+    }
+
+
+    /**
+     * @return synthetic value of string or number type, null for other types
+     */
+    private static Object createScalar(Class<?> type) {
+        if (type == String.class)
+            return "1";
+        if (type == Long.class || type == long.class)
+            return 1L;
+        if (type == Integer.class || type == int.class)
+            return 1;
+        return null;
+    }
+
+
+    private static void setSampleValue(Object sample, Field field, Object value) {
+        if (value == null || Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers()))
+            return;
+
+        try {
+            field.setAccessible(true);
+            field.set(sample, value);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("#setSampleValue: can't set " + field + ": " + e.toString());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.omenstudio.hydra.config;
+
+import com.github.omenstudio.hydra.builder.AsyncResponseBuilder;
+import com.github.omenstudio.hydra.builder.ContextBuilder;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.handler.HydraReturnValueHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * <p>
+ * Puts {@link HydraReturnValueHandler} in front of return value handlers of every
+ * {@link RequestMappingHandlerAdapter}, and resolves annotations of all handler methods
+ * once {@link RequestMappingHandlerMapping} has found them.
+ *
+ * <p>
+ * Not registered in {@link com.github.omenstudio.hydra.utils.HydraSettings#isAspectMode() aspect mode}, where
+ * {@link com.github.omenstudio.hydra.aspect.HydraControllerAspect} and
+ * {@link com.github.omenstudio.hydra.aspect.HydraContextAspect} build responses instead.
+ */
+@Slf4j
+@Conditional(HandlerModeCondition.class)
+@Component
+public class HydraReturnValueHandlerInstaller implements BeanPostProcessor, BeanFactoryAware {
+
+    private BeanFactory beanFactory;
+
+    /**
+     * Created on first use, when the framework beans can be created without breaking bean post processing
+     */
+    private HydraReturnValueHandler handler;
+
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RequestMappingHandlerAdapter) {
+            install((RequestMappingHandlerAdapter) bean);
+        } else if (bean instanceof RequestMappingHandlerMapping) {
+            getHandler().resolve(((RequestMappingHandlerMapping) bean).getHandlerMethods().values().stream()
+                    .map(HandlerMethod::getMethod)
+                    .collect(Collectors.toList()));
+        }
+        return bean;
+    }
+
+
+    private void install(RequestMappingHandlerAdapter adapter) {
+        List<HandlerMethodReturnValueHandler> defaultHandlers = adapter.getReturnValueHandlers();
+        if (defaultHandlers == null)
+            return;
+
+        HydraReturnValueHandler hydraHandler = getHandler();
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(defaultHandlers.size() + 1);
+        handlers.add(hydraHandler);
+        for (HandlerMethodReturnValueHandler defaultHandler : defaultHandlers) {
+            if (defaultHandler != hydraHandler) {
+                handlers.add(defaultHandler);
+            }
+        }
+
+        hydraHandler.setDelegates(handlers.subList(1, handlers.size()));
+        adapter.setReturnValueHandlers(handlers);
+
+        log.info("#install: responses are built by " + HydraReturnValueHandler.class.getSimpleName());
+    }
+
+
+    /**
+     * @return handler, which is installed or will be installed into handler adapters
+     */
+    synchronized HydraReturnValueHandler getHandler() {
+        if (handler == null) {
+            handler = new HydraReturnValueHandler(beanFactory.getBean(ResponseBuilder.class),
+                    beanFactory.getBean(AsyncResponseBuilder.class), beanFactory.getBean(ContextBuilder.class));
+        }
+        return handler;
+    }
+}
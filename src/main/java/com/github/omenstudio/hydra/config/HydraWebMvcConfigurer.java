@@ -0,0 +1,53 @@
+package com.github.omenstudio.hydra.config;
+
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.converter.JsonLdHttpMessageConverter;
+import com.github.omenstudio.hydra.handler.HydraHandlerInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+
+/**
+ * Registers framework extensions of Spring Web MVC. Picked up together with other framework components,
+ * when they are found by components scan.
+ */
+@Component
+public class HydraWebMvcConfigurer implements WebMvcConfigurer {
+
+    @Autowired
+    private ResponseBuilder responseBuilder;
+
+    /**
+     * Null in aspect mode
+     */
+    @Autowired(required = false)
+    private HydraReturnValueHandlerInstaller handlerInstaller;
+
+
+    /**
+     * JSON-LD converter goes first, so it wins over generic JSON converters, which accept application/*+json.
+     * Once it is registered, responses are written by it directly
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new JsonLdHttpMessageConverter());
+        responseBuilder.setDirectOutput(true);
+    }
+
+
+    /**
+     * Aspects do the same work around controller methods themselves
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (handlerInstaller == null)
+            return;
+
+        registry.addInterceptor(new HydraHandlerInterceptor(handlerInstaller.getHandler(), responseBuilder));
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.omenstudio.hydra.converter;
+
+import com.github.omenstudio.hydra.builder.JsonLdBody;
+import com.github.omenstudio.hydra.builder.JsonLdReader;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * <p>
+ * Reads {@code application/ld+json} request bodies into
+ * {@link com.github.omenstudio.hydra.annotation.model.HydraEntity} objects by {@link JsonLdReader}.
+ * Handler method parameter may be an entity, or {@code List}, {@code Set}, {@code Collection},
+ * {@link com.github.omenstudio.hydra.response.HydraGraph}, {@code Iterator} or {@code Stream} of entities.
+ *
+ * <p>
+ * {@code Iterator} and {@code Stream} parameters read request body while they are consumed by the handler,
+ * so bulk import of any size takes constant memory. Malformed member fails with
+ * {@link HttpMessageNotReadableException} at the moment it is read.
+ *
+ * <p>
+ * Writes {@link JsonLdBody} built by {@link com.github.omenstudio.hydra.builder.ResponseBuilder}.
+ * Body is encoded straight into the response output stream. It is written as {@code application/ld+json},
+ * or as any other media type the client asks for, e.g. {@code application/json}, since it was so
+ * when bodies were strings. Only {@code application/ld+json} is read.
+ *
+ * <p>
+ * Registered by {@link com.github.omenstudio.hydra.config.HydraWebMvcConfigurer}.
+ */
+public class JsonLdHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_JSON_LD = MediaType.valueOf("application/ld+json");
+
+    private final JsonLdReader jsonLdReader = new JsonLdReader();
+
+
+    public JsonLdHttpMessageConverter() {
+        super(APPLICATION_JSON_LD, MediaType.ALL);
+        setDefaultCharset(StandardCharsets.UTF_8);
+    }
+
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonLdReader.canRead(clazz);
+    }
+
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return JsonLdReader.canRead(type) && canRead(mediaType);
+    }
+
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return mediaType == null || APPLICATION_JSON_LD.includes(mediaType);
+    }
+
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return clazz != null && JsonLdBody.class.isAssignableFrom(clazz);
+    }
+
+
+    @Override
+    protected Long getContentLength(Object body, MediaType contentType) {
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        if (charset != null && !StandardCharsets.UTF_8.equals(charset))
+            return null;
+
+        return ((JsonLdBody) body).getContentLength();
+    }
+
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        InputStreamReader reader = new InputStreamReader(inputMessage.getBody(), getCharset(inputMessage));
+
+        try {
+            Object result = jsonLdReader.read(type, reader);
+            return wrapLazyErrors(result);
+        } catch (MalformedJsonException | JsonParseException | IllegalStateException e) {
+            throw new HttpMessageNotReadableException("Can't read JSON-LD: " + e.getMessage(), e);
+        }
+    }
+
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ((JsonLdBody) body).writeTo(outputMessage.getBody(), getCharset(outputMessage.getHeaders()));
+    }
+
+
+    private Charset getCharset(HttpInputMessage inputMessage) {
+        return getCharset(inputMessage.getHeaders());
+    }
+
+
+    private Charset getCharset(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType != null && contentType.getCharset() != null ? contentType.getCharset() : getDefaultCharset();
+    }
+
+
+    /**
+     * Errors of lazily read members are thrown while handler consumes them. They are translated
+     * to {@link HttpMessageNotReadableException}, so client gets "400 Bad Request" as for eagerly read body
+     */
+    @SuppressWarnings("unchecked")
+    private static Object wrapLazyErrors(Object result) {
+        if (result instanceof Stream) {
+            Stream<Object> stream = (Stream<Object>) result;
+            Iterator<Object> members = new TranslatingIterator(stream.iterator());
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(members, Spliterator.ORDERED), false)
+                    .onClose(stream::close);
+        }
+        if (result instanceof Iterator) {
+            return new TranslatingIterator((Iterator<Object>) result);
+        }
+        return result;
+    }
+
+
+    private static final class TranslatingIterator implements Iterator<Object> {
+
+        private final Iterator<Object> members;
+
+
+        TranslatingIterator(Iterator<Object> members) {
+            this.members = members;
+        }
+
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return members.hasNext();
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new HttpMessageNotReadableException("Can't read JSON-LD: " + e.getMessage(), e);
+            } catch (UncheckedIOException e) {
+                throw translate(e);
+            }
+        }
+
+
+        @Override
+        public Object next() {
+            try {
+                return members.next();
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new HttpMessageNotReadableException("Can't read JSON-LD: " + e.getMessage(), e);
+            } catch (UncheckedIOException e) {
+                throw translate(e);
+            }
+        }
+
+
+        /**
+         * Only malformed document is client's fault, other I/O errors are passed as is
+         */
+        private static RuntimeException translate(UncheckedIOException e) {
+            if (e.getCause() instanceof MalformedJsonException)
+                return new HttpMessageNotReadableException("Can't read JSON-LD: " + e.getCause().getMessage(), e.getCause());
+            return e;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.omenstudio.hydra.handler;
+
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+
+/**
+ * <p>
+ * Captures generation of the response cache before {@code @HydraCacheable} methods read entities,
+ * so responses of entities read before a concurrent write aren't cached.
+ *
+ * <p>
+ * Drops cached responses of entities written by void {@code @HydraPostRequest}, {@code @HydraPutRequest}
+ * and {@code @HydraDeleteRequest} methods, which Spring MVC completes without return value handlers,
+ * e.g. methods marked by {@code @ResponseStatus}. Other write methods are handled by {@link HydraReturnValueHandler}.
+ *
+ * <p>
+ * Registered by {@link com.github.omenstudio.hydra.config.HydraWebMvcConfigurer}.
+ */
+public class HydraHandlerInterceptor extends HandlerInterceptorAdapter {
+
+    private final HydraReturnValueHandler returnValueHandler;
+
+    private final ResponseBuilder responseBuilder;
+
+
+    public HydraHandlerInterceptor(HydraReturnValueHandler returnValueHandler, ResponseBuilder responseBuilder) {
+        this.returnValueHandler = returnValueHandler;
+        this.responseBuilder = responseBuilder;
+    }
+
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HydraHandlerMethod handlerMethod = returnValueHandler.getHandlerMethod(((HandlerMethod) handler).getMethod());
+            if (handlerMethod.getKind() == HydraHandlerMethod.Kind.REQUEST &&
+                    handlerMethod.getCachePolicy().getResponseCacheTtl() > 0) {
+                responseBuilder.captureCacheGeneration();
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (!(handler instanceof HandlerMethod))
+            return;
+
+        HydraHandlerMethod handlerMethod = returnValueHandler.getHandlerMethod(((HandlerMethod) handler).getMethod());
+        boolean write = handlerMethod.getKind() == HydraHandlerMethod.Kind.WRITE ||
+                handlerMethod.getKind() == HydraHandlerMethod.Kind.DELETE;
+
+        if (write && !responseBuilder.isCacheInvalidated()) {
+            responseBuilder.invalidateCachedResponses(null, handlerMethod.getWrittenClasses());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.omenstudio.hydra.handler;
+
+import com.github.omenstudio.hydra.annotation.context.HydraContextClass;
+import com.github.omenstudio.hydra.annotation.context.HydraContextCollection;
+import com.github.omenstudio.hydra.annotation.context.HydraContextEntryPoint;
+import com.github.omenstudio.hydra.annotation.request.HydraCacheable;
+import com.github.omenstudio.hydra.annotation.request.HydraDeleteRequest;
+import com.github.omenstudio.hydra.annotation.request.HydraGetRequest;
+import com.github.omenstudio.hydra.annotation.request.HydraPostRequest;
+import com.github.omenstudio.hydra.annotation.request.HydraPutRequest;
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+
+/**
+ * What the framework does with the value returned by a handler method.
+ * Resolved once per method from its annotations, which may be used as meta-annotations too.
+ * Shared by {@link HydraReturnValueHandler} and {@link com.github.omenstudio.hydra.aspect.HydraControllerAspect}.
+ */
+@Getter
+public final class HydraHandlerMethod {
+
+    public enum Kind {
+        /**
+         * Not a framework method, value is handled by Spring MVC as usual
+         */
+        NONE,
+        REQUEST,
+        /**
+         * POST or PUT, drops cached responses of written entities
+         */
+        WRITE,
+        DELETE,
+        CONTEXT_ENTRY_POINT,
+        CONTEXT_CLASS,
+        CONTEXT_COLLECTION
+    }
+
+    static final HydraHandlerMethod NONE = new HydraHandlerMethod(Kind.NONE, CachePolicy.NO_CACHE);
+
+    /**
+     * Generic parameters are looked into up to this depth, e.g. {@code CompletableFuture<List<Book>>}
+     */
+    private static final int MAX_GENERICS_DEPTH = 3;
+
+
+    private final Kind kind;
+
+    private final CachePolicy cachePolicy;
+
+    /**
+     * Entity classes write method takes or returns, empty for other methods
+     */
+    private final Set<Class<?>> writtenClasses;
+
+
+    private HydraHandlerMethod(Kind kind, CachePolicy cachePolicy) {
+        this(kind, cachePolicy, Collections.emptySet());
+    }
+
+    private HydraHandlerMethod(Kind kind, CachePolicy cachePolicy, Set<Class<?>> writtenClasses) {
+        this.kind = kind;
+        this.cachePolicy = cachePolicy;
+        this.writtenClasses = writtenClasses;
+    }
+
+
+    /**
+     * Write methods are resolved even if they return nothing, because they still drop cached responses.
+     * Other void methods have no response to build
+     */
+    public static HydraHandlerMethod resolve(Method method) {
+        if (AnnotatedElementUtils.hasAnnotation(method, HydraPostRequest.class) ||
+                AnnotatedElementUtils.hasAnnotation(method, HydraPutRequest.class))
+            return new HydraHandlerMethod(Kind.WRITE, CachePolicy.NO_CACHE, findEntityClasses(method));
+
+        if (AnnotatedElementUtils.hasAnnotation(method, HydraDeleteRequest.class))
+            return new HydraHandlerMethod(Kind.DELETE, CachePolicy.NO_CACHE, findEntityClasses(method));
+
+        if (method.getReturnType() == void.class)
+            return NONE;
+
+        HydraGetRequest getRequest = AnnotatedElementUtils.findMergedAnnotation(method, HydraGetRequest.class);
+        if (getRequest != null) {
+            HydraCacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, HydraCacheable.class);
+            return new HydraHandlerMethod(Kind.REQUEST, CachePolicy.of(getRequest, cacheable));
+        }
+
+        HydraContextEntryPoint entryPoint = AnnotatedElementUtils.findMergedAnnotation(method, HydraContextEntryPoint.class);
+        if (entryPoint != null)
+            return new HydraHandlerMethod(Kind.CONTEXT_ENTRY_POINT, CachePolicy.of(entryPoint));
+
+        HydraContextClass contextClass = AnnotatedElementUtils.findMergedAnnotation(method, HydraContextClass.class);
+        if (contextClass != null)
+            return new HydraHandlerMethod(Kind.CONTEXT_CLASS, CachePolicy.of(contextClass));
+
+        HydraContextCollection contextCollection = AnnotatedElementUtils.findMergedAnnotation(method, HydraContextCollection.class);
+        if (contextCollection != null)
+            return new HydraHandlerMethod(Kind.CONTEXT_COLLECTION, CachePolicy.of(contextCollection));
+
+        return NONE;
+    }
+
+
+    /**
+     * @return entity classes of parameters and return value, including element classes of collections and futures
+     */
+    private static Set<Class<?>> findEntityClasses(Method method) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            collectEntityClasses(ResolvableType.forMethodParameter(method, i), classes, 0);
+        }
+        collectEntityClasses(ResolvableType.forMethodReturnType(method), classes, 0);
+
+        return classes.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(classes);
+    }
+
+
+    private static void collectEntityClasses(ResolvableType type, Set<Class<?>> classes, int depth) {
+        if (type.isArray()) {
+            collectEntityClasses(type.getComponentType(), classes, depth);
+            return;
+        }
+
+        Class<?> resolved = type.resolve();
+        if (resolved != null && EntityDescriptorRegistry.get(resolved).isEntity())
+            classes.add(resolved);
+
+        if (depth < MAX_GENERICS_DEPTH) {
+            for (ResolvableType generic : type.getGenerics()) {
+                collectEntityClasses(generic, classes, depth + 1);
+            }
+        }
+    }
+}
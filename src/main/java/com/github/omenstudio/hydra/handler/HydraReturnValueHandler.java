@@ -0,0 +1,223 @@
+package com.github.omenstudio.hydra.handler;
+
+import com.github.omenstudio.hydra.builder.AsyncResponseBuilder;
+import com.github.omenstudio.hydra.builder.ContextBuilder;
+import com.github.omenstudio.hydra.builder.ResponseBuilder;
+import com.github.omenstudio.hydra.cache.CachePolicy;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletRequest;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * <p>
+ * Builds responses of methods marked by {@code @Hydra*Request} and {@code @HydraContext*} annotations
+ * right in Spring MVC, without proxies and aspects. Built response, e.g. {@code ResponseEntity},
+ * {@code StreamingResponseBody} or {@code DeferredResult}, is passed to the Spring MVC handler of its type.
+ *
+ * <p>
+ * Asynchronous results are built by {@link AsyncResponseBuilder} when they complete, so values,
+ * which Spring MVC passes to the handler on async dispatch, are responses already.
+ *
+ * <p>
+ * Annotations are resolved once per handler method, when handler mappings are initialized,
+ * see {@link #resolve(Collection)}. Other methods are passed through.
+ *
+ * <p>
+ * Installed first into {@code RequestMappingHandlerAdapter}
+ * by {@link com.github.omenstudio.hydra.config.HydraReturnValueHandlerInstaller}.
+ */
+public class HydraReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+    private final ResponseBuilder responseBuilder;
+
+    private final AsyncResponseBuilder asyncResponseBuilder;
+
+    private final ContextBuilder contextBuilder;
+
+    private final List<HandlerMethodReturnValueHandler> delegates = new ArrayList<>();
+
+    private final Map<Method, HydraHandlerMethod> methods = new ConcurrentHashMap<>();
+
+
+    public HydraReturnValueHandler(ResponseBuilder responseBuilder, AsyncResponseBuilder asyncResponseBuilder,
+                                   ContextBuilder contextBuilder) {
+        this.responseBuilder = responseBuilder;
+        this.asyncResponseBuilder = asyncResponseBuilder;
+        this.contextBuilder = contextBuilder;
+    }
+
+
+    /**
+     * @param delegates handlers of Spring MVC, which handle built responses
+     */
+    public void setDelegates(List<HandlerMethodReturnValueHandler> delegates) {
+        this.delegates.clear();
+        this.delegates.addAll(delegates);
+    }
+
+
+    /**
+     * Resolves annotations of handler methods in advance
+     */
+    public void resolve(Collection<Method> handlerMethods) {
+        handlerMethods.forEach(this::getHandlerMethod);
+    }
+
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return getHandlerMethod(returnType.getMethod()).getKind() != HydraHandlerMethod.Kind.NONE;
+    }
+
+
+    /**
+     * Values are never claimed as asynchronous, but the handler is still asked for them,
+     * because controller may return CompletableFuture and similar
+     */
+    @Override
+    public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+        return false;
+    }
+
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        // Async dispatch resumes with the response, which has been built when the asynchronous result completed
+        Object response = isAsyncDispatch(webRequest) ? returnValue : buildResponse(returnType, returnValue);
+
+        MethodParameter responseType = response == returnValue ? returnType : new ResponseType(returnType, response);
+        for (HandlerMethodReturnValueHandler delegate : delegates) {
+            if (delegate.supportsReturnType(responseType)) {
+                delegate.handleReturnValue(response, responseType, mavContainer, webRequest);
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown return value type: " + responseType.getParameterType().getName());
+    }
+
+
+    /**
+     * Builds response from the value returned by handler method, the same way as
+     * {@link com.github.omenstudio.hydra.aspect.HydraControllerAspect} and
+     * {@link com.github.omenstudio.hydra.aspect.HydraContextAspect} do
+     *
+     * @param returnType  return type of handler method
+     * @param returnValue value returned by handler method
+     * @return response, or the value itself if method isn't marked by framework annotations
+     */
+    public Object buildResponse(MethodParameter returnType, Object returnValue) {
+        HydraHandlerMethod handlerMethod = getHandlerMethod(returnType.getMethod());
+        CachePolicy cachePolicy = handlerMethod.getCachePolicy();
+
+        switch (handlerMethod.getKind()) {
+            case DELETE:
+            case WRITE:
+                return buildWriteResponse(handlerMethod, returnType, returnValue);
+
+            case REQUEST:
+                if (AsyncResponseBuilder.isAsync(returnValue)) {
+                    return asyncResponseBuilder.buildResponse(returnValue,
+                            result -> responseBuilder.buildResponse(result, cachePolicy));
+                }
+                return responseBuilder.buildResponse(returnValue, cachePolicy);
+
+            case CONTEXT_ENTRY_POINT:
+                return responseBuilder.buildResponse(contextBuilder.getContextForEntryPoint((String[]) returnValue), cachePolicy);
+
+            case CONTEXT_CLASS:
+                return responseBuilder.buildResponse(contextBuilder.getContextForClass((Class) returnValue), cachePolicy);
+
+            case CONTEXT_COLLECTION:
+                return responseBuilder.buildResponse(contextBuilder.getContextForCollection((Class) returnValue), cachePolicy);
+
+            default:
+                return returnValue;
+        }
+    }
+
+
+    /**
+     * Drops cached responses of written entities and builds response of the written value.
+     * Nothing is built for void methods and for DELETE returning nothing, as if there were no framework
+     */
+    private Object buildWriteResponse(HydraHandlerMethod handlerMethod, MethodParameter returnType, Object returnValue) {
+        if (returnValue == null && (handlerMethod.getKind() == HydraHandlerMethod.Kind.DELETE ||
+                returnType.getParameterType() == void.class)) {
+            responseBuilder.invalidateCachedResponses(null, handlerMethod.getWrittenClasses());
+            return null;
+        }
+
+        CachePolicy cachePolicy = handlerMethod.getCachePolicy();
+
+        if (AsyncResponseBuilder.isAsync(returnValue)) {
+            // Result is completed out of the request, classes are known by the request path only here
+            responseBuilder.invalidateCachedResponses(null, handlerMethod.getWrittenClasses());
+            return asyncResponseBuilder.buildResponse(returnValue, result -> {
+                responseBuilder.invalidateCachedResponses(result, Collections.emptySet());
+                return responseBuilder.buildResponse(result, cachePolicy);
+            });
+        }
+
+        responseBuilder.invalidateCachedResponses(returnValue, handlerMethod.getWrittenClasses());
+        return responseBuilder.buildResponse(returnValue, cachePolicy);
+    }
+
+
+    private static boolean isAsyncDispatch(NativeWebRequest webRequest) {
+        ServletRequest request = webRequest.getNativeRequest(ServletRequest.class);
+        return request != null && request.getDispatcherType() == DispatcherType.ASYNC;
+    }
+
+
+    HydraHandlerMethod getHandlerMethod(Method method) {
+        if (method == null)
+            return HydraHandlerMethod.NONE;
+
+        return methods.computeIfAbsent(method, HydraHandlerMethod::resolve);
+    }
+
+
+    /**
+     * Return type of the handler method as Spring MVC sees it for the built response:
+     * handlers are chosen by the class of the value, annotations are of the handler method
+     */
+    private static final class ResponseType extends MethodParameter {
+
+        private final Class<?> responseClass;
+
+        ResponseType(MethodParameter returnType, Object response) {
+            super(returnType);
+            this.responseClass = response != null ? response.getClass() : returnType.getParameterType();
+        }
+
+        private ResponseType(ResponseType original) {
+            super(original);
+            this.responseClass = original.responseClass;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return responseClass;
+        }
+
+        @Override
+        public ResponseType clone() {
+            return new ResponseType(this);
+        }
+    }
+}
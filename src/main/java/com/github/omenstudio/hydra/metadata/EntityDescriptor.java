@@ -0,0 +1,222 @@
+package com.github.omenstudio.hydra.metadata;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+import com.github.omenstudio.hydra.annotation.model.HydraId;
+import com.github.omenstudio.hydra.annotation.model.HydraLink;
+import com.github.omenstudio.hydra.annotation.model.HydraVersion;
+import com.github.omenstudio.hydra.serializer.HydraEntitySerializer;
+import com.github.omenstudio.hydra.serializer.HydraSerializers;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * <p>
+ * Immutable serialization plan of a class: everything JSON-LD builders
+ * and {@link com.github.omenstudio.hydra.utils.HydraUrlResolver} need to know about it.
+ *
+ * <p>
+ * Built once per class by {@link EntityDescriptorRegistry}. Descriptor exists for any class,
+ * not only for {@link HydraEntity} ones, because links may point to plain objects too.
+ *
+ * @see EntityDescriptorRegistry
+ * @see FieldDescriptor
+ */
+@Getter
+public final class EntityDescriptor {
+
+    private static final String DEFAULT_TYPE_PREFIX = "http://schema.org/";
+
+    private final Class<?> type;
+
+    private final HydraEntity hydraEntity;
+
+    private final String simpleName;
+
+    /**
+     * Value of {@link HydraEntity} or schema.org IRI based on the class name
+     */
+    private final String typeIri;
+
+    /**
+     * Path to entity relative to the API address, as it is declared
+     */
+    private final String entityPath;
+
+    /**
+     * Path to collection relative to the API address, as it is declared
+     */
+    private final String collectionPath;
+
+    /**
+     * Compiled {@link #entityPath}, with entity id appended if the path has no variables
+     */
+    private final IriTemplate entityTemplate;
+
+    /**
+     * Compiled {@link #collectionPath}
+     */
+    private final IriTemplate collectionTemplate;
+
+    /**
+     * Field marked by {@link HydraId} or, if there is no one, field named "id".
+     * May be declared in a superclass. Null if class has no such field
+     */
+    private final FieldDescriptor idField;
+
+    /**
+     * Field marked by {@link HydraVersion}, null if there is no such field
+     */
+    private final FieldDescriptor versionField;
+
+    /**
+     * Fields marked by {@link HydraField} or {@link HydraLink}, in declaration order
+     */
+    private final List<FieldDescriptor> fields;
+
+    /**
+     * Fields marked by {@link HydraLink}
+     */
+    private final List<FieldDescriptor> linkFields;
+
+    /**
+     * Fields, which must be serialized when entity is shown as a collection member or a link
+     */
+    private final List<FieldDescriptor> collectionFields;
+
+    /**
+     * Serializer generated at compile time, null if there is no one and reflection must be used
+     */
+    private final HydraEntitySerializer<?> serializer;
+
+
+    EntityDescriptor(Class<?> type) {
+        this.type = type;
+        this.hydraEntity = type.getDeclaredAnnotation(HydraEntity.class);
+        this.simpleName = type.getSimpleName();
+        this.typeIri = hydraEntity != null ? hydraEntity.value() : DEFAULT_TYPE_PREFIX + simpleName;
+
+        String defaultPath = "/" + simpleName.toLowerCase() + "s/";
+        this.entityPath = hydraEntity != null && !hydraEntity.pathToEntity().isEmpty()
+                ? hydraEntity.pathToEntity()
+                : defaultPath;
+        this.collectionPath = hydraEntity != null && !hydraEntity.pathToCollection().isEmpty()
+                ? hydraEntity.pathToCollection()
+                : defaultPath;
+
+        this.serializer = hydraEntity != null ? HydraSerializers.find(type) : null;
+
+        // Field read for several purposes gets a single descriptor
+        Map<Field, FieldDescriptor> described = new HashMap<>();
+
+        Field idDeclaration = findIdField(type);
+        this.idField = idDeclaration != null ? describe(described, idDeclaration) : null;
+
+        FieldDescriptor version = null;
+        List<FieldDescriptor> annotated = new ArrayList<>();
+        List<FieldDescriptor> links = new ArrayList<>();
+        List<FieldDescriptor> inCollection = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(HydraVersion.class)) {
+                version = describe(described, field);
+            }
+
+            if (!field.isAnnotationPresent(HydraField.class) &&
+                    !field.isAnnotationPresent(HydraLink.class)) {
+                continue;
+            }
+
+            FieldDescriptor descriptor = describe(described, field);
+
+            annotated.add(descriptor);
+            if (descriptor.isLink())
+                links.add(descriptor);
+            if (descriptor.isIncludeInCollection())
+                inCollection.add(descriptor);
+        }
+
+        this.versionField = version;
+        this.fields = Collections.unmodifiableList(annotated);
+        this.linkFields = Collections.unmodifiableList(links);
+        this.collectionFields = Collections.unmodifiableList(inCollection);
+
+        Function<String, FieldDescriptor> variableResolver = name -> resolveVariable(described, name);
+        this.entityTemplate = entityPath.indexOf('{') >= 0
+                ? IriTemplate.compile(entityPath, variableResolver)
+                : IriTemplate.withAppendedId(entityPath, idField);
+        this.collectionTemplate = IriTemplate.compile(collectionPath, variableResolver);
+    }
+
+
+    private FieldDescriptor describe(Map<Field, FieldDescriptor> described, Field field) {
+        return described.computeIfAbsent(field, f -> new FieldDescriptor(f, getAccessor(f)));
+    }
+
+
+    /**
+     * Accessor of generated serializer, which knows only fields declared by the entity itself
+     */
+    private FieldAccessor getAccessor(Field field) {
+        return serializer != null && field.getDeclaringClass() == type ? serializer.getAccessor(field.getName()) : null;
+    }
+
+
+    /**
+     * @return descriptor of IRI template variable, null if there is no such field
+     */
+    private FieldDescriptor resolveVariable(Map<Field, FieldDescriptor> described, String name) {
+        if (name.equals("id") && idField != null)
+            return idField;
+
+        for (Class<?> declaringClass = type; declaringClass != null; declaringClass = declaringClass.getSuperclass()) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers()))
+                    return describe(described, field);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Looks for identifier through the whole class hierarchy, {@link HydraId} wins over the field name
+     */
+    private static Field findIdField(Class<?> type) {
+        Field namedId = null;
+
+        for (Class<?> declaringClass = type; declaringClass != null; declaringClass = declaringClass.getSuperclass()) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()))
+                    continue;
+                if (field.isAnnotationPresent(HydraId.class))
+                    return field;
+                if (namedId == null && field.getName().equals("id"))
+                    namedId = field;
+            }
+        }
+
+        return namedId;
+    }
+
+
+    /**
+     * @return true if class is marked by {@link HydraEntity}
+     */
+    public boolean isEntity() {
+        return hydraEntity != null;
+    }
+
+    public String getCollectionName() {
+        return simpleName + "Collection";
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.omenstudio.hydra.metadata;
+
+
+/**
+ * <p>
+ * Registry of {@link EntityDescriptor}s.
+ *
+ * <p>
+ * Each class is introspected only once, on the first request. Descriptors are stored
+ * in a {@link ClassValue}, so lookups are lock-free and do not prevent class unloading.
+ */
+public final class EntityDescriptorRegistry {
+
+    private static final ClassValue<EntityDescriptor> DESCRIPTORS = new ClassValue<EntityDescriptor>() {
+        @Override
+        protected EntityDescriptor computeValue(Class<?> type) {
+            return new EntityDescriptor(type);
+        }
+    };
+
+
+    private EntityDescriptorRegistry() {
+    }
+
+
+    public static EntityDescriptor get(Class<?> type) {
+        return DESCRIPTORS.get(type);
+    }
+
+
+    public static EntityDescriptor get(Object object) {
+        return DESCRIPTORS.get(object.getClass());
+    }
+}
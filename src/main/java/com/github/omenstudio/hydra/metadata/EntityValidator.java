@@ -0,0 +1,87 @@
+package com.github.omenstudio.hydra.metadata;
+
+import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+import com.github.omenstudio.hydra.annotation.model.HydraId;
+import com.github.omenstudio.hydra.annotation.model.HydraLink;
+import com.github.omenstudio.hydra.annotation.model.HydraVersion;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * <p>
+ * Checks framework annotations of a class, which otherwise fail or are skipped only when the class is serialized:
+ * invalid IRI templates, missing identifier, illegal {@link HydraField} and {@link HydraLink} arguments.
+ *
+ * <p>
+ * Used on startup, see {@link com.github.omenstudio.hydra.config.HydraEntityInitializer}.
+ */
+public final class EntityValidator {
+
+    private EntityValidator() {
+    }
+
+
+    /**
+     * @param type class to check, its descriptor is built if it hasn't been yet
+     * @return descriptions of found problems, empty if there are none
+     */
+    public static List<String> validate(Class<?> type) {
+        List<String> problems = new ArrayList<>();
+
+        EntityDescriptor descriptor;
+        try {
+            descriptor = EntityDescriptorRegistry.get(type);
+        } catch (RuntimeException e) {
+            // Invalid IRI template, descriptor can't be built at all
+            problems.add(type.getName() + ": " + e.getMessage());
+            return problems;
+        }
+
+        HydraEntity hydraEntity = descriptor.getHydraEntity();
+        if (hydraEntity != null && hydraEntity.value().isEmpty()) {
+            problems.add(type.getName() + ": @HydraEntity has empty type IRI");
+        }
+
+        // Identifier is appended to the path without variables
+        if (descriptor.getIdField() == null && descriptor.getEntityPath().indexOf('{') < 0) {
+            problems.add(type.getName() + ": there is no identifier, mark a field by @HydraId or name it \"id\"");
+        }
+
+        int versionFields = 0;
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(HydraVersion.class)) {
+                versionFields++;
+            }
+            if (field.isAnnotationPresent(HydraId.class) && Modifier.isStatic(field.getModifiers())) {
+                problems.add(type.getName() + "." + field.getName() + ": @HydraId field is static");
+            }
+        }
+        if (versionFields > 1) {
+            problems.add(type.getName() + ": @HydraVersion marks " + versionFields + " fields, only one is allowed");
+        }
+
+        for (FieldDescriptor field : descriptor.getFields()) {
+            String fieldName = type.getName() + "." + field.getName();
+
+            HydraField hydraField = field.getHydraField();
+            if (hydraField != null && (hydraField.value().length != 1 || hydraField.value()[0].isEmpty())) {
+                problems.add(fieldName + ": @HydraField must have a single non-empty value");
+            }
+
+            HydraLink hydraLink = field.getHydraLink();
+            if (hydraLink != null && hydraLink.value().isEmpty()) {
+                problems.add(fieldName + ": @HydraLink has empty value");
+            }
+            if (hydraField != null && hydraLink != null) {
+                problems.add(fieldName + ": field is marked by both @HydraField and @HydraLink");
+            }
+        }
+
+        return problems;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.omenstudio.hydra.metadata;
+
+
+/**
+ * <p>
+ * Reads value of a single field.
+ *
+ * <p>
+ * By default fields are read through reflection. Serializers generated at compile time
+ * provide accessors, which call getters directly.
+ *
+ * @see com.github.omenstudio.hydra.serializer.HydraEntitySerializer#getAccessor(String)
+ */
+@FunctionalInterface
+public interface FieldAccessor {
+
+    /**
+     * @param object instance of the declaring class
+     * @return field value, may be null
+     */
+    Object get(Object object);
+}
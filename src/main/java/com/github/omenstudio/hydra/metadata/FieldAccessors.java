@@ -0,0 +1,116 @@
+package com.github.omenstudio.hydra.metadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+
+/**
+ * <p>
+ * Creates {@link FieldAccessor}s, which read fields through {@link MethodHandle}s.
+ *
+ * <p>
+ * Field is looked up and bound to its getter handle only once, when accessor is created.
+ * Handle is adapted to the exact signature accessor calls, so invocation needs neither
+ * access checks nor argument conversion. {@code long} and {@code int} fields get
+ * {@link LongFieldAccessor} and {@link IntFieldAccessor}, which don't box the value.
+ *
+ * <p>
+ * Used when there is no serializer generated at compile time.
+ */
+final class FieldAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+
+    private FieldAccessors() {
+    }
+
+
+    static FieldAccessor forField(Field field) {
+        field.setAccessible(true);
+
+        MethodHandle getter;
+        try {
+            getter = LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            // Can't happen, the field has just been made accessible
+            throw new IllegalStateException(e);
+        }
+
+        if (field.getType() == long.class) {
+            return new LongHandleAccessor(getter.asType(MethodType.methodType(long.class, Object.class)));
+        }
+        if (field.getType() == int.class) {
+            return new IntHandleAccessor(getter.asType(MethodType.methodType(int.class, Object.class)));
+        }
+        return new HandleAccessor(getter.asType(MethodType.methodType(Object.class, Object.class)));
+    }
+
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException)
+            throw (RuntimeException) e;
+        if (e instanceof Error)
+            throw (Error) e;
+        throw new IllegalStateException(e);
+    }
+
+
+    private static final class HandleAccessor implements FieldAccessor {
+
+        private final MethodHandle getter;
+
+        HandleAccessor(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object object) {
+            try {
+                return (Object) getter.invokeExact(object);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+
+    private static final class LongHandleAccessor implements LongFieldAccessor {
+
+        private final MethodHandle getter;
+
+        LongHandleAccessor(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public long getLong(Object object) {
+            try {
+                return (long) getter.invokeExact(object);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+
+    private static final class IntHandleAccessor implements IntFieldAccessor {
+
+        private final MethodHandle getter;
+
+        IntHandleAccessor(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public int getInt(Object object) {
+            try {
+                return (int) getter.invokeExact(object);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+}
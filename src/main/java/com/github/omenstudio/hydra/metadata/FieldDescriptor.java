@@ -0,0 +1,125 @@
+package com.github.omenstudio.hydra.metadata;
+
+import com.github.omenstudio.hydra.annotation.model.HydraField;
+import com.github.omenstudio.hydra.annotation.model.HydraLink;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+
+
+/**
+ * Immutable description of a single entity field, resolved once per class.
+ * Value is read by accessor of the generated serializer, if there is one.
+ * Otherwise the field is bound to a method handle on creation,
+ * so reading the value costs nothing but the access itself.
+ *
+ * @see EntityDescriptor
+ */
+@Getter
+public final class FieldDescriptor {
+
+    private final String name;
+
+    private final Field field;
+
+    private final HydraField hydraField;
+
+    private final HydraLink hydraLink;
+
+    private final boolean includeInCollection;
+
+    /**
+     * Value of {@link HydraLink#maxDepth()}, negative if there is no own limit
+     */
+    private final int maxEmbeddingDepth;
+
+    @Getter(AccessLevel.NONE)
+    private final FieldAccessor accessor;
+
+
+    /**
+     * @param field    described field
+     * @param accessor accessor provided by generated serializer, null to bind the field to a method handle
+     */
+    FieldDescriptor(Field field, FieldAccessor accessor) {
+        this.accessor = accessor != null ? accessor : FieldAccessors.forField(field);
+        this.name = field.getName();
+        this.field = field;
+        this.hydraField = field.getDeclaredAnnotation(HydraField.class);
+        this.hydraLink = field.getDeclaredAnnotation(HydraLink.class);
+        this.includeInCollection = hydraField != null && hydraField.includeInCollection() ||
+                hydraLink != null && hydraLink.includeInCollection();
+        this.maxEmbeddingDepth = hydraLink != null ? hydraLink.maxDepth() : -1;
+    }
+
+
+    public boolean isLink() {
+        return hydraLink != null;
+    }
+
+
+    /**
+     * Own limit of the link can only lower the limit inherited from the embedding entity
+     *
+     * @param depth levels of embedding left
+     * @return levels of embedding left for the linked entities
+     */
+    public int limitEmbeddingDepth(int depth) {
+        return maxEmbeddingDepth >= 0 ? Math.min(maxEmbeddingDepth, depth) : depth;
+    }
+
+
+    /**
+     * @return true if value is read as {@code long} or {@code int}, so it is never null and isn't boxed
+     */
+    public boolean isUnboxed() {
+        return accessor instanceof LongFieldAccessor || accessor instanceof IntFieldAccessor;
+    }
+
+
+    /**
+     * Reads the field value from the given object
+     *
+     * @param object instance of the declaring class
+     * @return field value, may be null
+     */
+    public Object getValue(Object object) {
+        return accessor.get(object);
+    }
+
+
+    /**
+     * Same as {@code getValue(object).toString()}, but {@code long} and {@code int} values aren't boxed
+     *
+     * @param object instance of the declaring class
+     * @return string representation of the field value
+     * @throws NullPointerException if the value is null
+     */
+    public String getValueAsString(Object object) {
+        if (accessor instanceof LongFieldAccessor)
+            return Long.toString(((LongFieldAccessor) accessor).getLong(object));
+        if (accessor instanceof IntFieldAccessor)
+            return Integer.toString(((IntFieldAccessor) accessor).getInt(object));
+
+        return accessor.get(object).toString();
+    }
+
+
+    /**
+     * Appends string representation of the field value, {@code long} and {@code int} values aren't boxed
+     *
+     * @param object  instance of the declaring class
+     * @param builder destination
+     * @return the builder
+     * @throws NullPointerException if the value is null
+     */
+    public StringBuilder appendValue(Object object, StringBuilder builder) {
+        if (accessor instanceof LongFieldAccessor)
+            return builder.append(((LongFieldAccessor) accessor).getLong(object));
+        if (accessor instanceof IntFieldAccessor)
+            return builder.append(((IntFieldAccessor) accessor).getInt(object));
+
+        return builder.append(accessor.get(object).toString());
+    }
+}
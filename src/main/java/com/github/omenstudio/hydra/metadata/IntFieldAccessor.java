@@ -0,0 +1,17 @@
+package com.github.omenstudio.hydra.metadata;
+
+
+/**
+ * {@link FieldAccessor} of {@code int} field, which can read the value without boxing
+ */
+@FunctionalInterface
+public interface IntFieldAccessor extends FieldAccessor {
+
+    int getInt(Object object);
+
+
+    @Override
+    default Object get(Object object) {
+        return getInt(object);
+    }
+}
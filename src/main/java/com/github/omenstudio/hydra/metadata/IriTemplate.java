@@ -0,0 +1,434 @@
+package com.github.omenstudio.hydra.metadata;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * <p>
+ * IRI template compiled into a list of segments: literal text and entity field values.
+ *
+ * <p>
+ * Templates follow RFC 6570 level 2 without variable lists:
+ * {@code {variable}} is expanded with percent-encoding of everything but unreserved characters,
+ * {@code {+variable}} keeps reserved characters as well. Null values and variables of absent entity
+ * are expanded to nothing.
+ *
+ * <p>
+ * Template is parsed and its variables are bound to fields only once, when entity descriptor is built.
+ * Expansion appends segments into a buffer reused by the thread, so the resulting string is the only allocation.
+ * {@code long} and {@code int} values are appended without boxing.
+ *
+ * <p>
+ * Template can also be matched against IRI to extract variable values back, see {@link #match(String)}.
+ *
+ * @see com.github.omenstudio.hydra.annotation.model.HydraEntity#pathToEntity()
+ */
+public final class IriTemplate {
+
+    private static final int BUFFER_CAPACITY = 128;
+
+    /**
+     * Buffers grown bigger than this are not kept by the thread
+     */
+    private static final int MAX_BUFFER_CAPACITY = 4096;
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+
+    @Getter
+    private final String template;
+
+    private final Segment[] segments;
+
+    /**
+     * True if template contains any variable
+     */
+    @Getter
+    private final boolean variable;
+
+    /**
+     * Fields of variables by variable names, in order of appearance
+     */
+    @Getter
+    private final Map<String, FieldDescriptor> variables;
+
+
+    private IriTemplate(String template, List<Segment> segments, boolean variable) {
+        this.template = template;
+        this.segments = segments.toArray(new Segment[segments.size()]);
+        this.variable = variable;
+
+        Map<String, FieldDescriptor> fields = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            if (segment instanceof VariableSegment) {
+                fields.put(((VariableSegment) segment).name, ((VariableSegment) segment).field);
+            } else if (segment instanceof RawValueSegment) {
+                fields.put(RawValueSegment.NAME, ((RawValueSegment) segment).field);
+            }
+        }
+        this.variables = Collections.unmodifiableMap(fields);
+    }
+
+
+    /**
+     * Compiles template
+     *
+     * @param template      RFC 6570 template
+     * @param fieldResolver returns descriptor of the field with the given name, null if there is no such field
+     * @throws IllegalArgumentException if template is malformed or refers to unknown field
+     */
+    static IriTemplate compile(String template, Function<String, FieldDescriptor> fieldResolver) {
+        List<Segment> segments = new ArrayList<>();
+        boolean variable = false;
+
+        int start = 0;
+        while (start < template.length()) {
+            int open = template.indexOf('{', start);
+            if (open < 0) {
+                segments.add(new LiteralSegment(template.substring(start)));
+                break;
+            }
+            if (open > start) {
+                segments.add(new LiteralSegment(template.substring(start, open)));
+            }
+
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed expression in IRI template " + template);
+            }
+
+            String expression = template.substring(open + 1, close);
+            boolean reserved = expression.startsWith("+");
+            String name = reserved ? expression.substring(1) : expression;
+            if (!isVariableName(name)) {
+                throw new IllegalArgumentException("Unsupported expression {" + expression + "} in IRI template " + template);
+            }
+
+            FieldDescriptor field = fieldResolver.apply(name);
+            if (field == null) {
+                throw new IllegalArgumentException("IRI template " + template + " refers to unknown field " + name);
+            }
+
+            segments.add(new VariableSegment(name, field, reserved));
+            variable = true;
+            start = close + 1;
+        }
+
+        return new IriTemplate(template, segments, variable);
+    }
+
+
+    /**
+     * Compiles path, which has no variables, with identifier appended as is.
+     * This is how paths were built before templates, so the result doesn't change.
+     *
+     * @param path    literal path
+     * @param idField identifier field, null if there is no one and expansion must fail
+     */
+    static IriTemplate withAppendedId(String path, FieldDescriptor idField) {
+        List<Segment> segments = new ArrayList<>();
+        segments.add(new LiteralSegment(path));
+        segments.add(idField != null ? new RawValueSegment(idField) : new MissingIdSegment());
+        return new IriTemplate(path + "{id}", segments, true);
+    }
+
+
+    /**
+     * Expands template into a new string
+     *
+     * @param prefix prepended to the expansion, usually API address
+     * @param entity source of variable values, may be null
+     */
+    public String expand(String prefix, Object entity) {
+        Buffer buffer = BUFFER.get();
+        StringBuilder out = buffer.acquire();
+        try {
+            return appendTo(out.append(prefix), entity).toString();
+        } finally {
+            buffer.release(out);
+        }
+    }
+
+
+    /**
+     * Appends expansion of template to the given builder
+     *
+     * @param out    destination
+     * @param entity source of variable values, may be null
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder out, Object entity) {
+        for (Segment segment : segments) {
+            segment.appendTo(out, entity);
+        }
+        return out;
+    }
+
+
+    /**
+     * <p>
+     * Extracts variable values from path, which has been built by this template.
+     *
+     * <p>
+     * Each variable takes characters up to the next literal part of the template.
+     * Values of {@code {variable}} expressions can't contain reserved characters and are percent-decoded.
+     * Identifier appended to a path without variables is taken as is and named "id".
+     *
+     * @param path path relative to the address template is expanded after
+     * @return values by variable names, null if path doesn't match the template
+     */
+    public Map<String, String> match(String path) {
+        Map<String, String> values = new HashMap<>();
+        int position = 0;
+
+        for (int i = 0; i < segments.length; i++) {
+            Segment segment = segments[i];
+
+            if (segment instanceof LiteralSegment) {
+                String text = ((LiteralSegment) segment).text;
+                if (!path.startsWith(text, position))
+                    return null;
+                position += text.length();
+                continue;
+            }
+
+            int end;
+            if (i + 1 == segments.length) {
+                end = path.length();
+            } else if (segments[i + 1] instanceof LiteralSegment) {
+                end = path.indexOf(((LiteralSegment) segments[i + 1]).text, position);
+                if (end < 0)
+                    return null;
+            } else {
+                // Adjacent variables can't be told apart
+                return null;
+            }
+
+            String value = path.substring(position, end);
+            if (segment instanceof RawValueSegment) {
+                values.put(RawValueSegment.NAME, value);
+            } else if (segment instanceof VariableSegment) {
+                VariableSegment variableSegment = (VariableSegment) segment;
+                if (!variableSegment.reserved && containsReserved(value))
+                    return null;
+                values.put(variableSegment.name, UriUtils.decode(value, StandardCharsets.UTF_8));
+            } else {
+                return null;
+            }
+            position = end;
+        }
+
+        return position == path.length() ? values : null;
+    }
+
+
+    private static boolean containsReserved(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (isReserved(value.charAt(i)))
+                return true;
+        }
+        return false;
+    }
+
+
+    private static boolean isVariableName(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)))
+            return false;
+
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+
+    private static boolean isUnreserved(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' ||
+                c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+
+    private static boolean isReserved(char c) {
+        return ":/?#[]@!$&'()*+,;=".indexOf(c) >= 0;
+    }
+
+
+    private static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+
+    /**
+     * Appends value, percent-encoding characters, which are not allowed by expression type
+     */
+    private static void appendEncoded(StringBuilder out, String value, boolean reserved) {
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            char c = value.charAt(i);
+
+            if (isUnreserved(c) || reserved && isReserved(c)) {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            // Reserved expansion keeps already encoded triplets
+            if (reserved && c == '%' && i + 2 < length &&
+                    isHexDigit(value.charAt(i + 1)) && isHexDigit(value.charAt(i + 2))) {
+                out.append(value, i, i + 3);
+                i += 3;
+                continue;
+            }
+
+            int codePoint = value.codePointAt(i);
+            if (codePoint < 0x80) {
+                appendEncodedByte(out, codePoint);
+            } else {
+                for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) {
+                    appendEncodedByte(out, b);
+                }
+            }
+            i += Character.charCount(codePoint);
+        }
+    }
+
+
+    private static void appendEncodedByte(StringBuilder out, int b) {
+        out.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
+
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+
+    private interface Segment {
+
+        void appendTo(StringBuilder out, Object entity);
+    }
+
+
+    private static final class LiteralSegment implements Segment {
+
+        private final String text;
+
+        LiteralSegment(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, Object entity) {
+            out.append(text);
+        }
+    }
+
+
+    private static final class VariableSegment implements Segment {
+
+        private final String name;
+
+        private final FieldDescriptor field;
+
+        private final boolean reserved;
+
+        VariableSegment(String name, FieldDescriptor field, boolean reserved) {
+            this.name = name;
+            this.field = field;
+            this.reserved = reserved;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, Object entity) {
+            if (entity == null)
+                return;
+
+            // Numbers consist of unreserved characters only
+            if (field.isUnboxed()) {
+                field.appendValue(entity, out);
+                return;
+            }
+
+            Object value = field.getValue(entity);
+            if (value != null) {
+                appendEncoded(out, value.toString(), reserved);
+            }
+        }
+    }
+
+
+    private static final class RawValueSegment implements Segment {
+
+        static final String NAME = "id";
+
+        private final FieldDescriptor field;
+
+        RawValueSegment(FieldDescriptor field) {
+            this.field = field;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, Object entity) {
+            field.appendValue(entity, out);
+        }
+    }
+
+
+    private static final class MissingIdSegment implements Segment {
+
+        @Override
+        @SneakyThrows
+        public void appendTo(StringBuilder out, Object entity) {
+            throw new NoSuchFieldException("id");
+        }
+    }
+
+
+    /**
+     * Builder reused by the thread. Nested expansion, if it ever happens, gets a fresh builder
+     */
+    private static final class Buffer {
+
+        private StringBuilder builder = new StringBuilder(BUFFER_CAPACITY);
+
+        private boolean inUse;
+
+
+        StringBuilder acquire() {
+            if (inUse)
+                return new StringBuilder(BUFFER_CAPACITY);
+
+            inUse = true;
+            return builder;
+        }
+
+
+        void release(StringBuilder used) {
+            if (used != builder)
+                return;
+
+            if (used.capacity() > MAX_BUFFER_CAPACITY) {
+                builder = new StringBuilder(BUFFER_CAPACITY);
+            } else {
+                used.setLength(0);
+            }
+            inUse = false;
+        }
+    }
+}
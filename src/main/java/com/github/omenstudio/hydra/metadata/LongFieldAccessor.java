@@ -0,0 +1,17 @@
+package com.github.omenstudio.hydra.metadata;
+
+
+/**
+ * {@link FieldAccessor} of {@code long} field, which can read the value without boxing
+ */
+@FunctionalInterface
+public interface LongFieldAccessor extends FieldAccessor {
+
+    long getLong(Object object);
+
+
+    @Override
+    default Object get(Object object) {
+        return getLong(object);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.omenstudio.hydra.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Accumulates {@link HydraMetricsListener#onDocumentLookup} calls of a single cache
+ */
+public class DocumentCacheStats implements DocumentCacheStatsMBean {
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+
+    void record(boolean hit) {
+        if (hit)
+            hits.increment();
+        else
+            misses.increment();
+    }
+
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long currentHits = hits.sum();
+        long total = currentHits + misses.sum();
+        return total == 0 ? 0 : (double) currentHits / total;
+    }
+}
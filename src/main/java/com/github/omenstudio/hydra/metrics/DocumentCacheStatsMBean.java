@@ -0,0 +1,19 @@
+package com.github.omenstudio.hydra.metrics;
+
+
+/**
+ * Hit statistics of a single cache of static documents
+ *
+ * @see JmxMetricsListener
+ */
+public interface DocumentCacheStatsMBean {
+
+    long getHits();
+
+    long getMisses();
+
+    /**
+     * @return hits divided by all lookups, 0 if there were no lookups
+     */
+    double getHitRatio();
+}
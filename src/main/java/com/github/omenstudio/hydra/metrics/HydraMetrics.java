@@ -0,0 +1,41 @@
+package com.github.omenstudio.hydra.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * <p>
+ * Holds {@link HydraMetricsListener} of the application. Like
+ * {@link com.github.omenstudio.hydra.utils.HydraSettings}, it is expected to be set once on startup.
+ *
+ * <p>
+ * Metrics are disabled by default. Then each instrumented place costs a single static field read.
+ */
+public class HydraMetrics {
+
+    /**
+     * Current listener, null if metrics are disabled
+     */
+    @Getter
+    @Setter
+    private static HydraMetricsListener listener;
+
+
+    public static boolean isEnabled() {
+        return listener != null;
+    }
+
+
+    /**
+     * Reports lookup of static document, if metrics are enabled
+     *
+     * @see HydraMetricsListener#onDocumentLookup
+     */
+    public static void recordDocumentLookup(String cacheName, boolean hit) {
+        HydraMetricsListener current = listener;
+        if (current != null) {
+            current.onDocumentLookup(cacheName, hit);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.omenstudio.hydra.metrics;
+
+
+/**
+ * <p>
+ * Receives measurements of work done by the framework itself.
+ *
+ * <p>
+ * Listener is set by {@link HydraMetrics#setListener}. While there is no listener,
+ * nothing is measured at all. Methods are called on request threads,
+ * so implementations must be thread-safe and fast.
+ *
+ * @see JmxMetricsListener
+ * @see MicrometerMetricsListener
+ */
+public interface HydraMetricsListener {
+
+    /**
+     * Called after response body has been serialized
+     *
+     * @param entityClass class of the entity or of collection members, null if collection is empty
+     * @param endpoint    request mapping pattern, like "/books/{id}", null if there is no current request
+     * @param nanos       serialization time
+     * @param bytes       size of UTF-8 encoded body
+     * @param members     number of collection members, -1 if body isn't a collection
+     */
+    void onSerialization(Class<?> entityClass, String endpoint, long nanos, long bytes, int members);
+
+    /**
+     * Called on each request to cache of documents: contexts, vocabulary and cached responses
+     *
+     * @param cacheName name of the cache
+     * @param hit       true if cached document has been returned, false if it has been built
+     */
+    void onDocumentLookup(String cacheName, boolean hit);
+}
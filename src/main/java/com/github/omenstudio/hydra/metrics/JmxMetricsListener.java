@@ -0,0 +1,131 @@
+package com.github.omenstudio.hydra.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * <p>
+ * Default {@link HydraMetricsListener}, which exposes statistics as JMX MBeans:
+ * <pre>
+ * com.github.omenstudio.hydra:type=Serialization,entity=com.example.Book,endpoint="/books/{id}"
+ * com.github.omenstudio.hydra:type=DocumentCache,name=classContexts
+ * </pre>
+ *
+ * <p>
+ * MBean is registered on the first measurement of its entity class and endpoint.
+ * For example:
+ * <pre>
+ * HydraMetrics.setListener(new JmxMetricsListener());
+ * </pre>
+ *
+ * @see SerializationStatsMBean
+ * @see DocumentCacheStatsMBean
+ */
+@Slf4j
+public class JmxMetricsListener implements HydraMetricsListener, AutoCloseable {
+
+    public static final String DOMAIN = "com.github.omenstudio.hydra";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MBeanServer mBeanServer;
+
+    private final Map<SerializationKey, SerializationStats> serializationStats = new ConcurrentHashMap<>();
+
+    private final Map<String, DocumentCacheStats> documentCacheStats = new ConcurrentHashMap<>();
+
+    private final Queue<ObjectName> registeredNames = new ConcurrentLinkedQueue<>();
+
+
+    public JmxMetricsListener() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+
+    public JmxMetricsListener(MBeanServer mBeanServer) {
+        this.mBeanServer = mBeanServer;
+    }
+
+
+    @Override
+    public void onSerialization(Class<?> entityClass, String endpoint, long nanos, long bytes, int members) {
+        getSerializationStats(entityClass, endpoint).record(nanos, bytes, members);
+    }
+
+
+    @Override
+    public void onDocumentLookup(String cacheName, boolean hit) {
+        getDocumentCacheStats(cacheName).record(hit);
+    }
+
+
+    public SerializationStats getSerializationStats(Class<?> entityClass, String endpoint) {
+        return serializationStats.computeIfAbsent(new SerializationKey(entityClass, endpoint), key -> {
+            SerializationStats stats = new SerializationStats();
+            register(stats, DOMAIN + ":type=Serialization" +
+                    ",entity=" + (entityClass != null ? entityClass.getName() : UNKNOWN) +
+                    ",endpoint=" + ObjectName.quote(endpoint != null ? endpoint : UNKNOWN));
+            return stats;
+        });
+    }
+
+
+    public DocumentCacheStats getDocumentCacheStats(String cacheName) {
+        return documentCacheStats.computeIfAbsent(cacheName, key -> {
+            DocumentCacheStats stats = new DocumentCacheStats();
+            register(stats, DOMAIN + ":type=DocumentCache,name=" + ObjectName.quote(cacheName));
+            return stats;
+        });
+    }
+
+
+    /**
+     * Unregisters all MBeans registered by this listener
+     */
+    @Override
+    public void close() {
+        ObjectName name;
+        while ((name = registeredNames.poll()) != null) {
+            try {
+                mBeanServer.unregisterMBean(name);
+            } catch (JMException e) {
+                log.warn("#close: can't unregister " + name + ": " + e.toString());
+            }
+        }
+    }
+
+
+    /**
+     * Statistics are collected even if MBean can't be registered
+     */
+    private void register(Object mBean, String name) {
+        try {
+            ObjectName objectName = new ObjectName(name);
+            mBeanServer.registerMBean(mBean, objectName);
+            registeredNames.add(objectName);
+        } catch (JMException e) {
+            log.warn("#register: can't register " + name + ": " + e.toString());
+        }
+    }
+
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class SerializationKey {
+
+        private final Class<?> entityClass;
+
+        private final String endpoint;
+    }
+}
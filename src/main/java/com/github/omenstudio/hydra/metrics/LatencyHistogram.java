@@ -0,0 +1,75 @@
+package com.github.omenstudio.hydra.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * <p>
+ * Lock-free histogram of durations with fixed buckets.
+ *
+ * <p>
+ * Buckets grow roughly exponentially from 10 microseconds to 1 second,
+ * so percentiles are estimated with error not bigger than the bucket width.
+ */
+final class LatencyHistogram {
+
+    /**
+     * Upper bounds of buckets in microseconds. The last bucket is unbounded
+     */
+    static final long[] BUCKET_BOUNDS_MICROS = {
+            10, 25, 50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+
+
+    void record(long micros) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+
+    /**
+     * @return number of measurements in each bucket, the last element is for measurements above all bounds
+     */
+    long[] getCounts() {
+        long[] result = new long[counts.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+
+    /**
+     * @param percentile from 0 to 100
+     * @return upper bound of the bucket containing the percentile, in microseconds.
+     * {@link Long#MAX_VALUE} if it is above all bounds, 0 if there are no measurements
+     */
+    long getPercentileMicros(double percentile) {
+        long[] snapshot = getCounts();
+
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(total * percentile / 100);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            accumulated += snapshot[i];
+            if (accumulated >= threshold) {
+                return BUCKET_BOUNDS_MICROS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
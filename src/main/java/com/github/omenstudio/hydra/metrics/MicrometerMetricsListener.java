@@ -0,0 +1,122 @@
+package com.github.omenstudio.hydra.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * <p>
+ * {@link HydraMetricsListener}, which records measurements to Micrometer's {@link MeterRegistry}.
+ * Micrometer is an optional dependency, add micrometer-core to use this listener.
+ *
+ * <p>
+ * Meters, all tagged by "entity" and "endpoint":
+ * <ul>
+ * <li>hydra.serialization - timer with percentile histogram</li>
+ * <li>hydra.serialization.size - distribution of body size in bytes</li>
+ * <li>hydra.collection.members - distribution of collection sizes</li>
+ * </ul>
+ * And hydra.documents counter, tagged by "cache" and "result": "hit" or "miss".
+ *
+ * <p>
+ * For example:
+ * <pre>
+ * HydraMetrics.setListener(new MicrometerMetricsListener(meterRegistry));
+ * </pre>
+ */
+public class MicrometerMetricsListener implements HydraMetricsListener {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+
+    private final Map<SerializationKey, SerializationMeters> serializationMeters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> documentHits = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> documentMisses = new ConcurrentHashMap<>();
+
+
+    public MicrometerMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+
+    @Override
+    public void onSerialization(Class<?> entityClass, String endpoint, long nanos, long bytes, int members) {
+        SerializationMeters meters = serializationMeters.computeIfAbsent(new SerializationKey(entityClass, endpoint),
+                this::createMeters);
+
+        meters.time.record(nanos, TimeUnit.NANOSECONDS);
+        meters.size.record(bytes);
+        if (members >= 0) {
+            meters.members.record(members);
+        }
+    }
+
+
+    @Override
+    public void onDocumentLookup(String cacheName, boolean hit) {
+        Map<String, Counter> counters = hit ? documentHits : documentMisses;
+
+        counters.computeIfAbsent(cacheName, name -> Counter.builder("hydra.documents")
+                .description("Requests to cache of contexts, vocabulary and responses")
+                .tags("cache", name, "result", hit ? "hit" : "miss")
+                .register(registry))
+                .increment();
+    }
+
+
+    private SerializationMeters createMeters(SerializationKey key) {
+        Tags tags = Tags.of(
+                "entity", key.entityClass != null ? key.entityClass.getSimpleName() : UNKNOWN,
+                "endpoint", key.endpoint != null ? key.endpoint : UNKNOWN);
+
+        Timer time = Timer.builder("hydra.serialization")
+                .description("Time spent on JSON-LD serialization")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        DistributionSummary size = DistributionSummary.builder("hydra.serialization.size")
+                .description("Size of serialized body")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+        DistributionSummary members = DistributionSummary.builder("hydra.collection.members")
+                .description("Number of serialized collection members")
+                .tags(tags)
+                .register(registry);
+
+        return new SerializationMeters(time, size, members);
+    }
+
+
+    @AllArgsConstructor
+    private static final class SerializationMeters {
+
+        private final Timer time;
+
+        private final DistributionSummary size;
+
+        private final DistributionSummary members;
+    }
+
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class SerializationKey {
+
+        private final Class<?> entityClass;
+
+        private final String endpoint;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.omenstudio.hydra.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Accumulates {@link HydraMetricsListener#onSerialization} calls of a single entity class and endpoint
+ */
+public class SerializationStats implements SerializationStatsMBean {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final LongAdder totalBytes = new LongAdder();
+
+    private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder collectionCount = new LongAdder();
+
+    private final LongAdder totalMembers = new LongAdder();
+
+    private final LongAccumulator maxMembers = new LongAccumulator(Math::max, 0);
+
+
+    void record(long nanos, long bytes, int members) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+
+        totalBytes.add(bytes);
+        maxBytes.accumulate(bytes);
+
+        if (members >= 0) {
+            collectionCount.increment();
+            totalMembers.add(members);
+            maxMembers.accumulate(members);
+        }
+    }
+
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanTimeMicros() {
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : totalNanos.sum() / 1000.0 / currentCount;
+    }
+
+    @Override
+    public long getMaxTimeMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+    }
+
+    @Override
+    public long getP50TimeMicros() {
+        return histogram.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getP95TimeMicros() {
+        return histogram.getPercentileMicros(95);
+    }
+
+    @Override
+    public long getP99TimeMicros() {
+        return histogram.getPercentileMicros(99);
+    }
+
+    @Override
+    public long[] getLatencyBucketBoundsMicros() {
+        return LatencyHistogram.BUCKET_BOUNDS_MICROS.clone();
+    }
+
+    @Override
+    public long[] getLatencyBucketCounts() {
+        return histogram.getCounts();
+    }
+
+    @Override
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+
+    @Override
+    public double getMeanBytes() {
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : (double) totalBytes.sum() / currentCount;
+    }
+
+    @Override
+    public long getMaxBytes() {
+        return maxBytes.get();
+    }
+
+    @Override
+    public long getCollectionCount() {
+        return collectionCount.sum();
+    }
+
+    @Override
+    public long getTotalMembers() {
+        return totalMembers.sum();
+    }
+
+    @Override
+    public long getMaxMembers() {
+        return maxMembers.get();
+    }
+}
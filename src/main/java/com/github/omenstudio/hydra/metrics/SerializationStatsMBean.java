@@ -0,0 +1,44 @@
+package com.github.omenstudio.hydra.metrics;
+
+
+/**
+ * Serialization statistics of a single entity class and endpoint
+ *
+ * @see JmxMetricsListener
+ */
+public interface SerializationStatsMBean {
+
+    long getCount();
+
+    double getMeanTimeMicros();
+
+    long getMaxTimeMicros();
+
+    long getP50TimeMicros();
+
+    long getP95TimeMicros();
+
+    long getP99TimeMicros();
+
+    /**
+     * @return upper bounds of histogram buckets, the last bucket is unbounded
+     */
+    long[] getLatencyBucketBoundsMicros();
+
+    long[] getLatencyBucketCounts();
+
+    long getTotalBytes();
+
+    double getMeanBytes();
+
+    long getMaxBytes();
+
+    /**
+     * @return number of serialized collections
+     */
+    long getCollectionCount();
+
+    long getTotalMembers();
+
+    long getMaxMembers();
+}
@@ -0,0 +1,130 @@
+package com.github.omenstudio.hydra.response;
+
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import com.github.omenstudio.hydra.utils.HydraUrlResolver;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * <p>
+ * Several entities written as a single JSON-LD document. Return it from Web MVC controller
+ * to answer a batch request in one round trip:
+ * <pre>
+ * {
+ *     "@context": ["/api/contexts/Book", "/api/contexts/Person"],
+ *     "@graph": [
+ *         {"@id": "/api/books/1", "@type": "Book", ...},
+ *         {"@id": "/api/people/7", "@type": "Person", ...}
+ *     ]
+ * }
+ * </pre>
+ * Context is shared by all entities: it is the context of their class,
+ * or list of contexts if entities are of different classes. Entities themselves are written
+ * exactly as single entity responses, but without {@code @context}.
+ *
+ * <p>
+ * For example, batch GET, which takes entity IRIs:
+ * <pre>
+ * &#64;HydraGetRequest("/books/batch")
+ * public Object getBooks(&#64;RequestParam(HydraGraph.IRI_PARAMETER) List&lt;String&gt; iris) {
+ *     return HydraGraph.of(repository.findAll(HydraGraph.resolveIds(Book.class, iris, Long::valueOf)));
+ * }
+ * </pre>
+ * Bulk {@code @HydraPostRequest} and {@code @HydraPutRequest} handlers return saved entities the same way.
+ *
+ * @param <T> type of entities
+ */
+@Getter
+public final class HydraGraph<T> {
+
+    /**
+     * Conventional name of request parameter, which lists requested entity IRIs
+     */
+    public static final String IRI_PARAMETER = "iri";
+
+
+    private final List<T> members;
+
+
+    private HydraGraph(List<T> members) {
+        this.members = members;
+    }
+
+
+    /**
+     * Creates graph of the given entities. Nulls, for instance entities which haven't been found, are skipped
+     *
+     * @param entities entities in order they must be written
+     */
+    public static <T> HydraGraph<T> of(Collection<? extends T> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return new HydraGraph<>(Collections.<T>emptyList());
+        }
+
+        List<T> members = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            if (entity != null) {
+                members.add(entity);
+            }
+        }
+
+        return new HydraGraph<>(Collections.unmodifiableList(members));
+    }
+
+
+    /**
+     * Converts IRIs of requested entities back to their ids.
+     * IRIs come from the client, so invalid ones are answered with "400 Bad Request"
+     *
+     * @param entityClass class of requested entities
+     * @param iris        entity IRIs, relative to the server or absolute
+     * @param idParser    converts string representation of id, e.g. {@code Long::valueOf}.
+     *                    Returns null or throws {@link IllegalArgumentException} if id is invalid
+     * @return ids in order of IRIs, without duplicates
+     * @throws ResponseStatusException with {@link HttpStatus#BAD_REQUEST} status if there are more IRIs
+     *                                 than {@link HydraSettings#getMaxBatchSize()}, or some IRI doesn't address
+     *                                 entity of the given class, or its id can't be parsed
+     * @see HydraUrlResolver#getIdFromIri(Class, String)
+     */
+    public static <ID> List<ID> resolveIds(Class<?> entityClass, Collection<String> iris, Function<String, ID> idParser) {
+        if (iris == null || iris.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (iris.size() > HydraSettings.getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch of " + iris.size()
+                    + " entities is bigger than " + HydraSettings.getMaxBatchSize());
+        }
+
+        List<ID> ids = new ArrayList<>(iris.size());
+        for (String iri : iris) {
+            String id = HydraUrlResolver.getIdFromIri(entityClass, iri);
+            if (id == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, iri + " isn't IRI of " + entityClass.getSimpleName());
+            }
+
+            ID parsed;
+            try {
+                parsed = idParser.apply(id);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, iri + " has invalid id", e);
+            }
+            if (parsed == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, iri + " has invalid id");
+            }
+            if (!ids.contains(parsed)) {
+                ids.add(parsed);
+            }
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.omenstudio.hydra.response;
+
+import com.github.omenstudio.hydra.utils.HydraSettings;
+import lombok.Getter;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * <p>
+ * One page of a collection. Return it from Web MVC controller instead of a whole collection
+ * and the response gets {@code hydra:totalItems} and {@code hydra:view}
+ * with {@code hydra:PartialCollectionView} navigation links.
+ *
+ * <p>
+ * Two paging modes are supported:
+ * <ul>
+ * <li>offset - page is addressed by {@value #OFFSET_PARAMETER} and {@value #LIMIT_PARAMETER} query parameters;</li>
+ * <li>cursor (keyset) - page is addressed by opaque {@value #CURSOR_PARAMETER}, usually the last seen key,
+ * so deep pages are as cheap as the first one.</li>
+ * </ul>
+ *
+ * <p>
+ * For example:
+ * <pre>
+ * &#64;HydraGetRequest("/books/")
+ * public Object getBooks(&#64;RequestParam(value = HydraPage.OFFSET_PARAMETER, defaultValue = "0") long offset,
+ *                        &#64;RequestParam(value = HydraPage.LIMIT_PARAMETER, required = false) Integer limit) {
+ *     int pageSize = HydraPage.resolveLimit(limit);
+ *     return HydraPage.ofOffset(Book.class, repository.find(offset, pageSize), offset, pageSize, repository.count());
+ * }
+ * </pre>
+ *
+ * @param <T> type of collection members
+ */
+@Getter
+public final class HydraPage<T> {
+
+    public static final String OFFSET_PARAMETER = "offset";
+
+    public static final String LIMIT_PARAMETER = "limit";
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+
+    private final Class<T> memberClass;
+
+    private final List<T> members;
+
+    private final int limit;
+
+    private final boolean cursorMode;
+
+    private final long offset;
+
+    /**
+     * Total number of items in collection, null if unknown
+     */
+    private final Long totalItems;
+
+    private final String cursor;
+
+    private final String previousCursor;
+
+    private final String nextCursor;
+
+
+    private HydraPage(Class<T> memberClass, List<T> members, int limit, boolean cursorMode, long offset,
+                      Long totalItems, String cursor, String previousCursor, String nextCursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive, got " + limit);
+        }
+
+        this.memberClass = memberClass;
+        this.members = members != null ? members : Collections.<T>emptyList();
+        this.limit = limit;
+        this.cursorMode = cursorMode;
+        this.offset = offset;
+        this.totalItems = totalItems;
+        this.cursor = cursor;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+
+    /**
+     * Creates page addressed by offset
+     *
+     * @param memberClass class of collection members
+     * @param members     items of this page
+     * @param offset      index of the first item of this page
+     * @param limit       page size
+     * @param totalItems  total number of items in collection
+     */
+    public static <T> HydraPage<T> ofOffset(Class<T> memberClass, List<T> members,
+                                            long offset, int limit, long totalItems) {
+        return new HydraPage<>(memberClass, members, limit, false, offset, totalItems, null, null, null);
+    }
+
+
+    /**
+     * Creates page addressed by cursor
+     *
+     * @param memberClass    class of collection members
+     * @param members        items of this page
+     * @param cursor         cursor of this page, null for the first one
+     * @param previousCursor cursor of the previous page, null if there is no previous page
+     *                       or it can't be addressed by cursor
+     * @param nextCursor     cursor of the next page, null if this page is the last one
+     * @param limit          page size
+     */
+    public static <T> HydraPage<T> ofCursor(Class<T> memberClass, List<T> members, String cursor,
+                                            String previousCursor, String nextCursor, int limit) {
+        return new HydraPage<>(memberClass, members, limit, true, 0, null, cursor, previousCursor, nextCursor);
+    }
+
+
+    /**
+     * Caps page size requested by client
+     *
+     * @param requestedLimit value of {@value #LIMIT_PARAMETER} parameter, may be null
+     * @return default page size if nothing requested, page size not bigger than maximum elsewhere
+     * @see HydraSettings#getDefaultPageSize()
+     * @see HydraSettings#getMaxPageSize()
+     */
+    public static int resolveLimit(Integer requestedLimit) {
+        if (requestedLimit == null || requestedLimit <= 0) {
+            return HydraSettings.getDefaultPageSize();
+        }
+
+        return Math.min(requestedLimit, HydraSettings.getMaxPageSize());
+    }
+
+
+    /**
+     * @param collectionPath path to the whole collection
+     * @return IRI of this page
+     */
+    public String getViewIri(String collectionPath) {
+        return cursorMode
+                ? buildCursorIri(collectionPath, cursor)
+                : buildOffsetIri(collectionPath, offset);
+    }
+
+
+    /**
+     * @return IRI of the first page
+     */
+    public String getFirstIri(String collectionPath) {
+        return cursorMode
+                ? buildCursorIri(collectionPath, null)
+                : buildOffsetIri(collectionPath, 0);
+    }
+
+
+    /**
+     * @return IRI of the previous page, null if there is no such page
+     */
+    public String getPreviousIri(String collectionPath) {
+        if (cursorMode) {
+            return previousCursor != null ? buildCursorIri(collectionPath, previousCursor) : null;
+        }
+
+        return offset > 0 ? buildOffsetIri(collectionPath, Math.max(0, offset - limit)) : null;
+    }
+
+
+    /**
+     * @return IRI of the next page, null if there is no such page
+     */
+    public String getNextIri(String collectionPath) {
+        if (cursorMode) {
+            return nextCursor != null ? buildCursorIri(collectionPath, nextCursor) : null;
+        }
+
+        return offset + limit < totalItems ? buildOffsetIri(collectionPath, offset + limit) : null;
+    }
+
+
+    /**
+     * @return IRI of the last page, null in cursor mode, because the last cursor is unknown
+     */
+    public String getLastIri(String collectionPath) {
+        if (cursorMode) {
+            return null;
+        }
+
+        long lastOffset = totalItems > 0 ? (totalItems - 1) / limit * limit : 0;
+        return buildOffsetIri(collectionPath, lastOffset);
+    }
+
+
+    private String buildOffsetIri(String collectionPath, long pageOffset) {
+        return collectionPath + "?" + OFFSET_PARAMETER + "=" + pageOffset + "&" + LIMIT_PARAMETER + "=" + limit;
+    }
+
+
+    private String buildCursorIri(String collectionPath, String pageCursor) {
+        if (pageCursor == null) {
+            return collectionPath + "?" + LIMIT_PARAMETER + "=" + limit;
+        }
+
+        return collectionPath + "?" + CURSOR_PARAMETER + "=" + encode(pageCursor) + "&" + LIMIT_PARAMETER + "=" + limit;
+    }
+
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
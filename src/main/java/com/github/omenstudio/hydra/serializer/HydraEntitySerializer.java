@@ -0,0 +1,48 @@
+package com.github.omenstudio.hydra.serializer;
+
+import com.github.omenstudio.hydra.metadata.FieldAccessor;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+
+/**
+ * <p>
+ * Serializer of a single {@link com.github.omenstudio.hydra.annotation.model.HydraEntity} class,
+ * generated at compile time by hydra-processor.
+ *
+ * <p>
+ * Generated serializer is named after the entity: {@code com.example.Book_HydraSerializer}
+ * for {@code com.example.Book}, {@code com.example.Outer_Book_HydraSerializer} for nested class.
+ * It is found by {@link HydraSerializers#find(Class)} on the first use of the entity class.
+ * If there is no such class, fields are read through reflection.
+ *
+ * @param <T> entity type
+ */
+public interface HydraEntitySerializer<T> {
+
+    /**
+     * <p>
+     * Writes plain fields of entity into the currently opened object,
+     * exactly as Gson's reflective adapter would do it: in the same order, with the same names,
+     * skipping null values and fields excluded by
+     * {@link com.github.omenstudio.hydra.utils.AnnotationJsonExclusionStrategy}.
+     *
+     * <p>
+     * JSON-LD keywords and links are not written here.
+     *
+     * @param entity entity to write
+     * @param out    writer with opened object
+     * @param gson   used for values of types serializer doesn't know how to write
+     */
+    void writeFields(T entity, JsonWriter out, Gson gson) throws IOException;
+
+    /**
+     * @param fieldName name of field declared in entity class: id, version or marked by
+     *                  {@link com.github.omenstudio.hydra.annotation.model.HydraField}
+     *                  or {@link com.github.omenstudio.hydra.annotation.model.HydraLink}
+     * @return accessor of the field, null if serializer doesn't know such field
+     */
+    FieldAccessor getAccessor(String fieldName);
+}
@@ -0,0 +1,153 @@
+package com.github.omenstudio.hydra.serializer;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+
+/**
+ * <p>
+ * Lookup of generated {@link HydraEntitySerializer}s and helpers used by generated code.
+ *
+ * <p>
+ * Helpers write values the same way Gson's reflective adapter does,
+ * so output of generated serializer doesn't differ from reflective one.
+ */
+@Slf4j
+public final class HydraSerializers {
+
+    /**
+     * Appended to the entity name to get the generated serializer name
+     */
+    public static final String SERIALIZER_SUFFIX = "_HydraSerializer";
+
+
+    private HydraSerializers() {
+    }
+
+
+    /**
+     * Finds and instantiates serializer generated for the class
+     *
+     * @param type entity class
+     * @return serializer or null, if it hasn't been generated
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> HydraEntitySerializer<T> find(Class<T> type) {
+        String serializerName = getSerializerName(type);
+
+        try {
+            Class<?> serializerClass = Class.forName(serializerName, true, type.getClassLoader());
+            if (!HydraEntitySerializer.class.isAssignableFrom(serializerClass)) {
+                log.warn("#find: " + serializerName + " isn't a HydraEntitySerializer, reflection is used");
+                return null;
+            }
+
+            return (HydraEntitySerializer<T>) serializerClass.newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("#find: can't create " + serializerName + ", reflection is used: " + e.toString());
+            return null;
+        }
+    }
+
+
+    /**
+     * @return name of serializer generated for the class. For nested classes '$' is replaced by '_'
+     */
+    public static String getSerializerName(Class<?> type) {
+        String name = type.getName();
+        int packageEnd = name.lastIndexOf('.');
+
+        return name.substring(0, packageEnd + 1) +
+                name.substring(packageEnd + 1).replace('$', '_') +
+                SERIALIZER_SUFFIX;
+    }
+
+
+    /**
+     * Resolves declared type of the field. Called once, when generated serializer is initialized
+     *
+     * @param declaringClass class, which declares the field
+     * @param fieldName      field name
+     * @return generic type of the field
+     */
+    public static TypeToken<?> getFieldType(Class<?> declaringClass, String fieldName) {
+        try {
+            return TypeToken.get(declaringClass.getDeclaredField(fieldName).getGenericType());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Generated serializer doesn't match " + declaringClass.getName() +
+                    ", recompile it", e);
+        }
+    }
+
+
+    /**
+     * <p>
+     * Writes value with Gson's adapter.
+     *
+     * <p>
+     * Adapter is chosen as Gson does for fields: adapter of the runtime type is preferred,
+     * unless it is reflective and adapter of the declared type isn't.
+     *
+     * @param out          writer, property name is already written
+     * @param gson         Gson instance, which provides adapters
+     * @param declaredType declared type of the field
+     * @param value        value to write, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeValue(JsonWriter out, Gson gson, TypeToken<?> declaredType, Object value) throws IOException {
+        TypeAdapter adapter = gson.getAdapter(declaredType);
+
+        Type type = declaredType.getType();
+        if (value != null && (type == Object.class || type instanceof TypeVariable<?> || type instanceof Class<?>) &&
+                value.getClass() != type) {
+            TypeAdapter runtimeTypeAdapter = gson.getAdapter(value.getClass());
+            if (!(runtimeTypeAdapter instanceof ReflectiveTypeAdapterFactory.Adapter) ||
+                    adapter instanceof ReflectiveTypeAdapterFactory.Adapter) {
+                adapter = runtimeTypeAdapter;
+            }
+        }
+
+        adapter.write(out, value);
+    }
+
+
+    /**
+     * Writes double or float value, rejecting NaN and infinities as Gson does by default
+     */
+    public static void writeFloatingPoint(JsonWriter out, Number value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        checkValidFloatingPoint(value.doubleValue());
+        out.value(value);
+    }
+
+
+    /**
+     * Same as {@link #writeFloatingPoint(JsonWriter, Number)}, without boxing
+     */
+    public static void writeFloatingPoint(JsonWriter out, double value) throws IOException {
+        checkValidFloatingPoint(value);
+        out.value(value);
+    }
+
+
+    private static void checkValidFloatingPoint(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification. " +
+                    "To override this behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+        }
+    }
+}
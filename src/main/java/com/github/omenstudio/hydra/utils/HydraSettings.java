@@ -0,0 +1,165 @@
+package com.github.omenstudio.hydra.utils;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Global tuning of the framework. Like {@link HydraUrlResolver} addresses,
+ * settings are expected to be set once on application startup.
+ */
+public class HydraSettings {
+
+    /**
+     * Collections bigger than this are written directly to the response output stream.
+     * Stream and Iterator return values are always written this way.
+     */
+    @Getter
+    @Setter
+    private static int streamingCollectionThreshold = 1000;
+
+    /**
+     * Page size used when client doesn't request any
+     *
+     * @see com.github.omenstudio.hydra.response.HydraPage#resolveLimit(Integer)
+     */
+    @Getter
+    @Setter
+    private static int defaultPageSize = 20;
+
+    /**
+     * Biggest page size client can request
+     *
+     * @see com.github.omenstudio.hydra.response.HydraPage#resolveLimit(Integer)
+     */
+    @Getter
+    @Setter
+    private static int maxPageSize = 100;
+
+    /**
+     * Biggest number of entities client can request in a single batch
+     *
+     * @see com.github.omenstudio.hydra.response.HydraGraph#resolveIds
+     */
+    @Getter
+    @Setter
+    private static int maxBatchSize = 100;
+
+    /**
+     * Static documents smaller than this, in bytes, are always sent uncompressed
+     *
+     * @see com.github.omenstudio.hydra.cache.StaticDocument#getContent(com.github.omenstudio.hydra.cache.ContentCoding)
+     */
+    @Getter
+    @Setter
+    private static int compressionThreshold = 1024;
+
+    /**
+     * How many levels of links are embedded into response: links of the response entity
+     * or collection members are the first level, their links marked by includeInCollection are the second, and so on.
+     * Deeper entities, and entities which are already being written (cycles), are written as bare references {"@id": ...}
+     *
+     * @see com.github.omenstudio.hydra.annotation.model.HydraLink#maxDepth()
+     */
+    @Getter
+    @Setter
+    private static int maxEmbeddingDepth = 3;
+
+    /**
+     * Collections, pages and graphs are written compactly: linked entity met several times in the response
+     * is embedded only the first time, then it is written as bare reference {"@id": ...}.
+     * Entity is embedded again only if deeper embedding is allowed where it is met later.
+     * Collection members themselves are always written in full.
+     */
+    @Getter
+    @Setter
+    private static boolean compactCollections = false;
+
+    /**
+     * In-memory collections with at least this many members are serialized on several threads,
+     * output is the same. Non-positive value disables parallel serialization.
+     * Streams, iterators and collections written in compact mode are always serialized by a single thread
+     *
+     * @see #getParallelSerializationThreads()
+     */
+    @Getter
+    @Setter
+    private static int parallelSerializationThreshold = 10_000;
+
+    /**
+     * Threads serializing a single collection in parallel, including the request thread.
+     * Pool of helper threads is shared by all requests and is created on the first use
+     *
+     * @see #getParallelSerializationThreshold()
+     */
+    @Getter
+    @Setter
+    private static int parallelSerializationThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Threads of executor, which serializes asynchronous results of controllers
+     *
+     * @see com.github.omenstudio.hydra.builder.AsyncResponseBuilder
+     */
+    @Getter
+    @Setter
+    private static int serializationThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Asynchronous results waiting for serialization above this
+     * are serialized by the thread, which has completed them
+     *
+     * @see com.github.omenstudio.hydra.builder.AsyncResponseBuilder
+     */
+    @Getter
+    @Setter
+    private static int serializationQueueCapacity = 1000;
+
+    /**
+     * Biggest total size in bytes of serialized entities kept by response cache
+     *
+     * @see com.github.omenstudio.hydra.cache.ResponseCache
+     */
+    @Getter
+    @Setter
+    private static long responseCacheMaxBytes = 32 * 1024 * 1024;
+
+    /**
+     * Packages scanned for {@link com.github.omenstudio.hydra.annotation.model.HydraEntity} classes on startup.
+     * Found classes are validated, startup fails if annotations are invalid, and everything needed
+     * to serialize them is prepared in advance. Nothing is scanned by default
+     *
+     * @see com.github.omenstudio.hydra.config.HydraEntityInitializer
+     */
+    @Getter
+    private static String[] entityScanPackages = new String[0];
+
+    /**
+     * How many times each scanned entity is serialized on startup, alone and as a collection,
+     * so serialization code is compiled before the first requests come. Zero disables warm-up
+     *
+     * @see #getEntityScanPackages()
+     */
+    @Getter
+    @Setter
+    private static int warmUpIterations = 0;
+
+    /**
+     * Responses are built by {@link com.github.omenstudio.hydra.aspect.HydraControllerAspect} and
+     * {@link com.github.omenstudio.hydra.aspect.HydraContextAspect} around controller methods, even if they are
+     * called outside of Spring MVC. Needs AspectJ and {@code @EnableAspectJAutoProxy}. By default responses are built
+     * by {@link com.github.omenstudio.hydra.handler.HydraReturnValueHandler} and controllers aren't proxied.
+     * Must be set before application context is created
+     *
+     * @see com.github.omenstudio.hydra.config.AspectModeCondition
+     */
+    @Getter
+    @Setter
+    private static boolean aspectMode = false;
+
+
+    public static void setEntityScanPackages(String... entityScanPackages) {
+        HydraSettings.entityScanPackages = entityScanPackages;
+    }
+
+}
@@ -1,31 +1,57 @@
 package com.github.omenstudio.hydra.utils;
 
 import com.github.omenstudio.hydra.annotation.model.HydraEntity;
+import com.github.omenstudio.hydra.metadata.EntityDescriptorRegistry;
 import lombok.Getter;
-import lombok.Setter;
-import lombok.SneakyThrows;
 
-import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class HydraUrlResolver {
 
     @Getter
-    @Setter
     private static String serverAddress;
 
     @Getter
-    @Setter
     private static String apiAddress;
 
     @Getter
-    @Setter
     private static String vocabAddress;
 
     @Getter
-    @Setter
     private static String contextsAddress;
 
+    /**
+     * Incremented on every address change, lets caches of built documents detect they are stale
+     */
+    private static final AtomicInteger addressesVersion = new AtomicInteger();
+
+
+    public static void setServerAddress(String serverAddress) {
+        HydraUrlResolver.serverAddress = serverAddress;
+        addressesVersion.incrementAndGet();
+    }
+
+    public static void setApiAddress(String apiAddress) {
+        HydraUrlResolver.apiAddress = apiAddress;
+        addressesVersion.incrementAndGet();
+    }
+
+    public static void setVocabAddress(String vocabAddress) {
+        HydraUrlResolver.vocabAddress = vocabAddress;
+        addressesVersion.incrementAndGet();
+    }
+
+    public static void setContextsAddress(String contextsAddress) {
+        HydraUrlResolver.contextsAddress = contextsAddress;
+        addressesVersion.incrementAndGet();
+    }
+
+    public static int getAddressesVersion() {
+        return addressesVersion.get();
+    }
+
 
     /**
      * <p>
@@ -34,6 +60,7 @@ public class HydraUrlResolver {
      * <p>
      * Takes value from HydraEntity annotation
      * or calculate custom, based on the class simple name.
+     * Template variables are taken from the item.
      *
      * @param collectionItem any object from collection
      * @return
@@ -41,34 +68,89 @@ public class HydraUrlResolver {
      * @see HydraEntity
      */
     public static String getPathToCollection(Object collectionItem) {
-        HydraEntity hydraEntityAnnotation = collectionItem.getClass().getDeclaredAnnotation(HydraEntity.class);
+        return EntityDescriptorRegistry.get(collectionItem).getCollectionTemplate().expand(apiAddress, collectionItem);
+    }
 
-        if (hydraEntityAnnotation != null && !hydraEntityAnnotation.pathToCollection().isEmpty()) {
-            return apiAddress + hydraEntityAnnotation.pathToCollection();
-        }
 
-        return apiAddress + "/" + collectionItem.getClass().getSimpleName().toLowerCase() + "s/";
+    /**
+     * Gets path to collection of items of the given class.
+     * There is no item to take template variables from, so they are expanded to nothing.
+     *
+     * @param collectionItemClass class of collection items
+     * @return
+     *
+     * @see #getPathToCollection(Object)
+     */
+    public static String getPathToCollection(Class<?> collectionItemClass) {
+        return getPathToCollection(collectionItemClass, null);
     }
 
 
-    @SneakyThrows
+    /**
+     * Gets path to collection of items of the given class, template variables are taken from the given item.
+     *
+     * @param collectionItemClass class of collection items
+     * @param collectionItem      instance of the class, may be null
+     * @return
+     *
+     * @see #getPathToCollection(Object)
+     */
+    public static String getPathToCollection(Class<?> collectionItemClass, Object collectionItem) {
+        return EntityDescriptorRegistry.get(collectionItemClass).getCollectionTemplate().expand(apiAddress, collectionItem);
+    }
+
+
+    /**
+     * Gets IRI of the entity. Path template is compiled once per class,
+     * so building IRI costs only appending path segments and id value.
+     *
+     * @param entityObject entity
+     * @return
+     *
+     * @see HydraEntity#pathToEntity()
+     */
     public static String getPathToEntity(Object entityObject) {
-        // Let's find object #ID
-        Object objectId = 0;
-        Field field = entityObject.getClass().getDeclaredField("id");
-        field.setAccessible(true);
-        objectId = field.get(entityObject);
-
-        // If programmer has setup the url to item
-        HydraEntity hydraEntityAnnotation = entityObject.getClass().getDeclaredAnnotation(HydraEntity.class);
-        if (hydraEntityAnnotation != null && !hydraEntityAnnotation.pathToEntity().isEmpty()) {
-            return apiAddress + hydraEntityAnnotation.pathToEntity() + objectId.toString();
+        return EntityDescriptorRegistry.get(entityObject).getEntityTemplate().expand(apiAddress, entityObject);
+    }
+
+
+    /**
+     * Inverse of {@link #getPathToEntity}: extracts template variables from entity IRI.
+     * IRI may be relative to the server, like the ones framework writes, or absolute.
+     *
+     * @param entityClass class of the entity
+     * @param iri         entity IRI
+     * @return values by variable names, identifier is named "id". Null if it isn't IRI of the given class
+     *
+     * @see com.github.omenstudio.hydra.metadata.IriTemplate#match(String)
+     */
+    public static Map<String, String> getVariablesFromIri(Class<?> entityClass, String iri) {
+        if (iri == null)
+            return null;
+
+        int start = 0;
+        if (serverAddress != null && iri.startsWith(serverAddress + apiAddress)) {
+            start = serverAddress.length();
         }
+        if (!iri.startsWith(String.valueOf(apiAddress), start))
+            return null;
 
-        // Default value
-        return apiAddress + "/" + entityObject.getClass().getSimpleName().toLowerCase() + "s/" + objectId.toString();
+        return EntityDescriptorRegistry.get(entityClass).getEntityTemplate()
+                .match(iri.substring(start + String.valueOf(apiAddress).length()));
     }
 
 
+    /**
+     * Inverse of {@link #getPathToEntity}
+     *
+     * @param entityClass class of the entity
+     * @param iri         entity IRI, relative to the server or absolute
+     * @return string representation of the identifier, null if it isn't IRI of the given class
+     */
+    public static String getIdFromIri(Class<?> entityClass, String iri) {
+        Map<String, String> variables = getVariablesFromIri(entityClass, iri);
+        return variables != null ? variables.get("id") : null;
+    }
+
 
 }